@@ -0,0 +1,278 @@
+package com.github.chengyuxing.sql;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.sql.datasource.AbstractTransactionSyncManager;
+import com.github.chengyuxing.sql.plugins.AsyncQueryExecutor;
+import com.github.chengyuxing.sql.plugins.QueryExecutor;
+import com.github.chengyuxing.sql.support.ExecutionScope;
+import com.github.chengyuxing.sql.types.CompactRow;
+import com.github.chengyuxing.sql.types.Param;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Asynchronous {@link Baki} facade, the calls are executed on the dedicated executor and return
+ * {@link CompletableFuture}, cancel the future or the deadline expired invokes {@link java.sql.Statement#cancel()}
+ * of the running statement, e.g.
+ * <blockquote>
+ * <pre>
+ * AsyncBaki async = bakiDao.async().deadline(Duration.ofSeconds(3));
+ * async.updateAsync("update test.user set name = :name where id = :id", Args.of("id", 1, "name", "cyx"))
+ *      .thenAccept(System.out::println);
+ * </pre>
+ * </blockquote>
+ * <p>If the transaction is active on the caller thread, the call is executed on the caller thread
+ * with the transactional connection and the completed future is returned.</p>
+ */
+public class AsyncBaki {
+    private static final Logger log = LoggerFactory.getLogger(AsyncBaki.class);
+    private final Baki baki;
+    private final Executor executor;
+    private final Duration timeout;
+
+    /**
+     * Constructs a new AsyncBaki.
+     *
+     * @param baki     baki
+     * @param executor executor to run the calls
+     */
+    public AsyncBaki(@NotNull Baki baki, @NotNull Executor executor) {
+        this(baki, executor, null);
+    }
+
+    private AsyncBaki(Baki baki, Executor executor, Duration timeout) {
+        this.baki = baki;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Create the default executor, virtual thread per task executor on Java 21+,
+     * otherwise bounded thread pool with {@code parallelism} threads.
+     *
+     * @param parallelism max threads if virtual thread not available
+     * @param queueSize   max waiting calls if virtual thread not available, the call is rejected if exceeded
+     * @return executor service
+     */
+    public static ExecutorService defaultExecutor(int parallelism, int queueSize) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.debug("Virtual thread not available, use bounded thread pool.");
+        }
+        AtomicInteger threadNum = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism, parallelism,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "baki-async-" + threadNum.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Returns a new AsyncBaki which each call has the deadline starts from it submitted.
+     *
+     * @param timeout timeout
+     * @return AsyncBaki
+     */
+    public AsyncBaki deadline(@NotNull Duration timeout) {
+        return new AsyncBaki(baki, executor, timeout);
+    }
+
+    /**
+     * Execute the function asynchronously.
+     *
+     * @param func function
+     * @param <T>  result type
+     * @return result future
+     */
+    public <T> CompletableFuture<T> supplyAsync(@NotNull Function<Baki, T> func) {
+        return supplyAsync(func, timeout);
+    }
+
+    /**
+     * Execute the function asynchronously with deadline.
+     *
+     * @param func    function
+     * @param timeout timeout which starts from now, null means no deadline
+     * @param <T>     result type
+     * @return result future
+     */
+    public <T> CompletableFuture<T> supplyAsync(@NotNull Function<Baki, T> func, @Nullable Duration timeout) {
+        if (AbstractTransactionSyncManager.isTransactionActive()) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                future.complete(func.apply(baki));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+        final ExecutionScope scope = timeout == null ? ExecutionScope.create() : ExecutionScope.withDeadline(timeout);
+        final CompletableFuture<T> future = new CompletableFuture<T>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                scope.cancel();
+                return cancelled;
+            }
+        };
+        ScheduledFuture<?> watchdog = scope.watch(() ->
+                future.completeExceptionally(new TimeoutException("Execution deadline exceeded: " + timeout)));
+        if (watchdog != null) {
+            future.whenComplete((r, e) -> watchdog.cancel(false));
+        }
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(scope.call(() -> func.apply(baki)));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Convert the query executor to asynchronous.
+     *
+     * @param queryExecutor query executor
+     * @return AsyncQueryExecutor
+     */
+    public AsyncQueryExecutor query(@NotNull QueryExecutor queryExecutor) {
+        return new AsyncQueryExecutor() {
+            Duration myTimeout = timeout;
+
+            @Override
+            public AsyncQueryExecutor deadline(@NotNull Duration timeout) {
+                myTimeout = timeout;
+                return this;
+            }
+
+            @Override
+            public CompletableFuture<List<DataRow>> rows() {
+                return supplyAsync(b -> queryExecutor.rows(), myTimeout);
+            }
+
+            @Override
+            public CompletableFuture<List<Map<String, Object>>> maps() {
+                return supplyAsync(b -> queryExecutor.maps(), myTimeout);
+            }
+
+            @Override
+            public CompletableFuture<List<CompactRow>> compactRows() {
+                return supplyAsync(b -> queryExecutor.compactRows(), myTimeout);
+            }
+
+            @Override
+            public <T> CompletableFuture<List<T>> entities(Class<T> entityClass) {
+                return supplyAsync(b -> queryExecutor.entities(entityClass), myTimeout);
+            }
+
+            @Override
+            public CompletableFuture<Optional<DataRow>> findFirst() {
+                return supplyAsync(b -> queryExecutor.findFirst(), myTimeout);
+            }
+        };
+    }
+
+    /**
+     * Execute insert asynchronously.
+     *
+     * @param sql  named parameter sql or sql name
+     * @param data data
+     * @return affected row count future
+     * @see Baki#insert(String, Map)
+     */
+    public CompletableFuture<Integer> insertAsync(@NotNull String sql, @NotNull Map<String, ?> data) {
+        return supplyAsync(b -> b.insert(sql, data));
+    }
+
+    /**
+     * Execute batch insert asynchronously.
+     *
+     * @param sql  named parameter sql or sql name
+     * @param data data
+     * @return affected row count future
+     * @see Baki#insert(String, Iterable)
+     */
+    public CompletableFuture<Integer> insertAsync(@NotNull String sql, @NotNull Iterable<? extends Map<String, ?>> data) {
+        return supplyAsync(b -> b.insert(sql, data));
+    }
+
+    /**
+     * Execute update asynchronously.
+     *
+     * @param sql  named parameter sql or sql name
+     * @param args args
+     * @return affected row count future
+     * @see Baki#update(String, Map)
+     */
+    public CompletableFuture<Integer> updateAsync(@NotNull String sql, Map<String, ?> args) {
+        return supplyAsync(b -> b.update(sql, args));
+    }
+
+    /**
+     * Execute delete asynchronously.
+     *
+     * @param sql  named parameter sql or sql name
+     * @param args args
+     * @return affected row count future
+     * @see Baki#delete(String, Map)
+     */
+    public CompletableFuture<Integer> deleteAsync(@NotNull String sql, Map<String, ?> args) {
+        return supplyAsync(b -> b.delete(sql, args));
+    }
+
+    /**
+     * Execute query, ddl, dml or plsql statement asynchronously.
+     *
+     * @param sql  sql or sql name
+     * @param args args
+     * @return result future
+     * @see Baki#execute(String, Map)
+     */
+    public CompletableFuture<DataRow> executeAsync(@NotNull String sql, Map<String, ?> args) {
+        return supplyAsync(b -> b.execute(sql, args));
+    }
+
+    /**
+     * Execute store procedure or function asynchronously.
+     *
+     * @param procedure procedure
+     * @param params    parameters
+     * @return result future
+     * @see Baki#call(String, Map)
+     */
+    public CompletableFuture<DataRow> callAsync(@NotNull String procedure, Map<String, Param> params) {
+        return supplyAsync(b -> b.call(procedure, params));
+    }
+
+    public Baki getBaki() {
+        return baki;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+}
@@ -9,8 +9,12 @@ import com.github.chengyuxing.sql.types.Param;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.Connection;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * <h2>Basic Database Access Interface</h2>
@@ -156,6 +160,20 @@ public interface Baki {
      */
     @NotNull DataRow execute(@NotNull String sql, Map<String, ?> args);
 
+    /**
+     * Executes a SQL script or procedure which returns multiple results (query results and update counts)
+     * in one round trip.
+     * <p>The default implementation returns the single result of {@link #execute(String, Map)}.</p>
+     *
+     * @param sql  The SQL statements to be executed, e.g. SQL Server/MySQL multi statements.
+     * @param args The arguments to be used in the SQL statements, represented as a map
+     *             of parameter names to values.
+     * @return The results in order, each result is same as {@link #execute(String, Map)}.
+     */
+    default @NotNull List<DataRow> executeAll(@NotNull String sql, Map<String, ?> args) {
+        return Collections.singletonList(execute(sql, args));
+    }
+
     /**
      * Executes a batch of prepared DML statements.
      *
@@ -221,4 +239,37 @@ public interface Baki {
      * @return The information for the current database.
      */
     @NotNull DatabaseInfo databaseInfo();
+
+    /**
+     * Executes a block of code with a request-scoped deadline, every statement inside it respects the
+     * remaining time and the running statements (including open query streams) are cancelled when
+     * the deadline expires, e.g.
+     * <blockquote>
+     * <pre>
+     * baki.withDeadline(Duration.ofSeconds(3), () -&gt; {
+     *     baki.update(...);
+     *     return baki.query(...).rows();
+     * });</pre>
+     * </blockquote>
+     * <p>Nested deadline is limited by the outer one.</p>
+     *
+     * @param timeout  The timeout which starts from now.
+     * @param supplier A supplier to be executed within the deadline.
+     * @param <T>      The type of the result.
+     * @return The result of the supplier.
+     * @throws UnsupportedOperationException If the implementation can not cancel the running statements.
+     */
+    default <T> T withDeadline(@NotNull Duration timeout, @NotNull Supplier<T> supplier) {
+        throw new UnsupportedOperationException("Deadline is not supported by " + getClass().getName() + ".");
+    }
+
+    /**
+     * Creates a new query batch which executes the independent queries concurrently on separate connections.
+     * <p>The default implementation executes the queries one by one on the caller thread.</p>
+     *
+     * @return A {@link QueryBatch} instance to add the queries and execute them together.
+     */
+    default @NotNull QueryBatch parallel() {
+        return new QueryBatch(Runnable::run, 1);
+    }
 }
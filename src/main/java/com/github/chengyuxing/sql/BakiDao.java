@@ -6,20 +6,31 @@ import com.github.chengyuxing.common.MethodReference;
 import com.github.chengyuxing.common.tuple.Pair;
 import com.github.chengyuxing.common.tuple.Triple;
 import com.github.chengyuxing.common.util.ReflectUtils;
+import com.github.chengyuxing.sql.datasource.AbstractTransactionSyncManager;
+import com.github.chengyuxing.sql.datasource.ConnectionHolder;
 import com.github.chengyuxing.sql.datasource.DataSourceUtils;
+import com.github.chengyuxing.sql.datasource.ReadWriteRoutingDataSource;
+import com.github.chengyuxing.sql.datasource.StatementCache;
 import com.github.chengyuxing.sql.dsl.Delete;
 import com.github.chengyuxing.sql.dsl.Insert;
 import com.github.chengyuxing.sql.dsl.Query;
 import com.github.chengyuxing.sql.dsl.Update;
+import com.github.chengyuxing.sql.dsl.Upsert;
 import com.github.chengyuxing.sql.dsl.clause.OrderBy;
 import com.github.chengyuxing.sql.dsl.clause.Where;
 import com.github.chengyuxing.sql.dsl.clause.condition.Criteria;
 import com.github.chengyuxing.sql.dsl.types.OrderByType;
+import com.github.chengyuxing.sql.exceptions.DataAccessException;
+import com.github.chengyuxing.sql.exceptions.ParallelExecutionException;
 import com.github.chengyuxing.sql.page.IPageable;
 import com.github.chengyuxing.sql.page.PageHelper;
 import com.github.chengyuxing.sql.page.impl.*;
 import com.github.chengyuxing.sql.plugins.*;
 import com.github.chengyuxing.sql.support.*;
+import com.github.chengyuxing.sql.transaction.Definition;
+import com.github.chengyuxing.sql.transaction.Tx;
+import com.github.chengyuxing.sql.types.CommitPolicy;
+import com.github.chengyuxing.sql.types.CompactRow;
 import com.github.chengyuxing.sql.types.DatabaseInfo;
 import com.github.chengyuxing.sql.types.Param;
 import com.github.chengyuxing.sql.annotation.SqlStatementType;
@@ -34,9 +45,21 @@ import org.slf4j.LoggerFactory;
 import javax.sql.DataSource;
 import java.lang.reflect.Field;
 import java.sql.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -55,8 +78,17 @@ public class BakiDao extends JdbcSupport implements Baki {
     private static final String ARG_INTERNAL_PAGE_HELPER_KEY = "_$rabbit.sql.pageHelper";
     private static final String SQL_REF_MODIFIER_COUNT = "count";
     private static final String SQL_REF_MODIFIER_PAGE = "page";
+    private static final int MAX_DEMAND_FETCH_SIZE = 1000;
     private final DataSource dataSource;
-    private DatabaseInfo databaseInfo;
+    /**
+     * Lazily resolved database info cache, key: datasource.
+     */
+    private final Map<DataSource, DatabaseInfo> databaseInfoCache = new ConcurrentHashMap<>();
+    /**
+     * Prepared statement cache metrics.
+     */
+    private final StatementCache.Metrics statementCacheMetrics = new StatementCache.Metrics();
+    private volatile AsyncBaki asyncBaki;
     private SqlGenerator sqlGenerator;
     private EntityManager entityManager;
     private char namedParamPrefix = XQLFileManager.DEFAULT_NAMED_PARAM_PREFIX;
@@ -106,6 +138,14 @@ public class BakiDao extends JdbcSupport implements Baki {
      * Execution watchers.
      */
     private AroundExecutor<Execution> executionWatcher;
+    /**
+     * Retry policy.
+     */
+    private RetryPolicy retryPolicy;
+    /**
+     * Retry the arbitrary sql execution ({@link #executeAny(String, Map)}).
+     */
+    private boolean retryExecuteAny = false;
     /**
      * Entity meta provider.
      */
@@ -114,6 +154,30 @@ public class BakiDao extends JdbcSupport implements Baki {
      * Database info provider
      */
     private DatabaseInfoProvider databaseInfoProvider;
+    /**
+     * Max cached prepared statements of each transactional connection, 0 means disabled.
+     */
+    private int statementCacheSize = 0;
+    /**
+     * Global stream query fetch size, 0 means driver default.
+     */
+    private int fetchSize = 0;
+    /**
+     * Max bytes per stream query fetch to adapt fetch size by row width, 0 means disabled.
+     */
+    private int fetchBufferSize = 0;
+    /**
+     * Estimated row width of the stream query by prepared sql, 0 means unknown.
+     */
+    private final BoundedCache<String, Long> rowWidthCache = new BoundedCache<>(1024);
+    /**
+     * Rewrite batch insert to multi-row insert.
+     */
+    private boolean multiRowInsert = false;
+    /**
+     * Executor of the asynchronous calls.
+     */
+    private Executor asyncExecutor;
 
     /**
      * Constructs a new BakiDao with initial datasource.
@@ -143,7 +207,6 @@ public class BakiDao extends JdbcSupport implements Baki {
         this.statementValueHandler = (ps, index, value, metaData) -> JdbcUtils.setStatementValue(ps, index, value);
         this.queryTimeoutHandler = (sql, args) -> 0;
         this.sqlInvokeHandler = type -> null;
-        this.databaseInfo = using(DatabaseInfo::of);
     }
 
     /**
@@ -166,25 +229,210 @@ public class BakiDao extends JdbcSupport implements Baki {
     @Override
     public DataRow executeAny(@NotNull String sql, Map<String, ?> args) {
         return this.executionWatcher.call(new Execution(SqlStatementType.unset, sql, args),
-                i -> super.executeAny(sql, args));
+                i -> retryExecuteAny ? retry(i, () -> super.executeAny(sql, args)) : super.executeAny(sql, args));
+    }
+
+    @Override
+    public List<DataRow> executeAnyResults(@NotNull String sql, Map<String, ?> args) {
+        return this.executionWatcher.call(new Execution(SqlStatementType.unset, sql, args),
+                i -> super.executeAnyResults(sql, args));
+    }
+
+    @Override
+    public Stream<DataRow> executeAnyStream(@NotNull String sql, Map<String, ?> args) {
+        return this.executionWatcher.call(new Execution(SqlStatementType.unset, sql, args),
+                i -> super.executeAnyStream(sql, args));
     }
 
     @Override
     public Stream<DataRow> executeQueryStream(@NotNull String sql, Map<String, ?> args) {
+        return executeQueryStream(sql, args, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Fetch size priority: {@code fetchSize} argument &gt; XQL metadata ({@code -- @fetchSize 1000})
+     * &gt; {@link #setFetchSize(int) global fetch size}.</p>
+     */
+    @Override
+    public Stream<DataRow> executeQueryStream(@NotNull String sql, Map<String, ?> args, int fetchSize) {
+        return executeQueryStream(sql, args, fetchSize,
+                (resultSet, executedSql) -> RowDecoder.of(resultSet, executedSql)::createDataRow,
+                Function.identity());
+    }
+
+    /**
+     * Lazily execute query with custom row mapper.
+     *
+     * @param sql             sql or sql name
+     * @param args            args
+     * @param fetchSize       rows per round trip, 0 means use the default
+     * @param mapperFactory   row mapper factory
+     * @param cachedRowMapper row mapper if the query has been taken over by the {@link QueryCacheManager}
+     * @param <T>             result type
+     * @return Stream query result
+     */
+    protected <T> Stream<T> executeQueryStream(@NotNull String sql,
+                                               Map<String, ?> args,
+                                               int fetchSize,
+                                               @NotNull RowMapper.Factory<T> mapperFactory,
+                                               @NotNull Function<DataRow, T> cachedRowMapper) {
         return this.executionWatcher.call(new Execution(SqlStatementType.query, sql, args),
                 i -> {
+                    int myFetchSize = resolveFetchSize(sql, fetchSize);
                     if (queryCacheManager == null || !queryCacheManager.isAvailable(sql, args)) {
-                        return super.executeQueryStream(sql, args);
+                        return retry(i, () -> super.executeQueryStream(sql, args, myFetchSize, mapperFactory));
                     }
                     log.debug("The query({}, {}) has been taken over by the cache.", sql, args);
-                    return queryCacheManager.get(sql, args, () -> super.executeQueryStream(sql, args));
+                    return queryCacheManager.get(sql, args, () -> super.executeQueryStream(sql, args, myFetchSize))
+                            .map(cachedRowMapper);
                 });
     }
 
+    /**
+     * Retry the single statement execution by the {@link #setRetryPolicy(RetryPolicy) retry policy},
+     * the execution in transaction is not retried, retry the whole transaction by {@link #retryTransaction(Supplier, Definition)} instead.
+     *
+     * @param execution execution
+     * @param call      execution call
+     * @param <T>       result type
+     * @return result
+     */
+    protected <T> T retry(@NotNull Execution execution, @NotNull Supplier<T> call) {
+        if (retryPolicy == null || AbstractTransactionSyncManager.isTransactionActive()) {
+            return call.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                if (!awaitRetry(execution, e, attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private boolean awaitRetry(Execution execution, RuntimeException error, int attempt) {
+        long backoff = retryPolicy.backoff(execution, error, attempt);
+        if (backoff < 0) {
+            return false;
+        }
+        ExecutionScope scope = ExecutionScope.current();
+        if (scope != null && (scope.isCancelled() || scope.remainingNanos() <= TimeUnit.MILLISECONDS.toNanos(backoff))) {
+            return false;
+        }
+        log.debug("Retry {} after {} ms, attempt: {}, cause: {}", execution.getSql(), backoff, attempt, error.getMessage());
+        if (backoff > 0) {
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        execution.setRetries(attempt);
+        return true;
+    }
+
+    /**
+     * Execute the transaction and retry the whole transaction by the {@link #setRetryPolicy(RetryPolicy) retry policy}
+     * if failed, e.g. serialization failure or deadlock, the supplier must be safe to re-execute, e.g.
+     * <blockquote>
+     * <pre>
+     * bakiDao.retryTransaction(() -&gt; {
+     *     baki.update(...);
+     *     return baki.update(...);
+     * }, Definition.defaultDefinition());</pre>
+     * </blockquote>
+     * <p>If the transaction is already active, the supplier is executed in the current transaction without retry.</p>
+     *
+     * @param supplier   transaction block
+     * @param definition transaction definition
+     * @param <T>        result type
+     * @return result
+     * @see Tx#using(Supplier, Definition)
+     */
+    public <T> T retryTransaction(@NotNull Supplier<T> supplier, @NotNull Definition definition) {
+        if (AbstractTransactionSyncManager.isTransactionActive()) {
+            return supplier.get();
+        }
+        return this.executionWatcher.call(new Execution(SqlStatementType.unset, "transaction", null), i -> {
+            if (retryPolicy == null) {
+                return Tx.using(supplier, definition);
+            }
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return Tx.using(supplier, definition);
+                } catch (RuntimeException e) {
+                    if (!awaitRetry(i, e, attempt)) {
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Execute the transaction with default definition and retry the whole transaction if failed.
+     *
+     * @param supplier transaction block
+     * @param <T>      result type
+     * @return result
+     * @see #retryTransaction(Supplier, Definition)
+     */
+    public <T> T retryTransaction(@NotNull Supplier<T> supplier) {
+        return retryTransaction(supplier, Definition.defaultDefinition());
+    }
+
+    /**
+     * Resolve the stream query fetch size.
+     *
+     * @param sql       sql or sql name
+     * @param fetchSize requested fetch size
+     * @return fetch size
+     */
+    protected int resolveFetchSize(@NotNull String sql, int fetchSize) {
+        if (fetchSize != 0) {
+            return fetchSize;
+        }
+        String mySql = sql.trim();
+        if (xqlFileManager != null && mySql.startsWith("&")) {
+            String sqlRef = mySql.substring(1);
+            if (xqlFileManager.contains(sqlRef)) {
+                String value = xqlFileManager.getSqlObject(sqlRef).getMetadata().get("fetchSize");
+                if (value != null) {
+                    try {
+                        return Integer.parseInt(value.trim());
+                    } catch (NumberFormatException e) {
+                        log.warn("Invalid fetchSize metadata '{}' of sql '{}'.", value, sqlRef);
+                    }
+                }
+            }
+        }
+        return this.fetchSize;
+    }
+
+    /**
+     * Resolve the publisher query fetch size, the requested count is used if fetch size not configured.
+     *
+     * @param sql       sql or sql name
+     * @param fetchSize requested fetch size
+     * @param demand    first requested count of the subscriber
+     * @return fetch size
+     */
+    protected int resolveFetchSize(@NotNull String sql, int fetchSize, long demand) {
+        int myFetchSize = resolveFetchSize(sql, fetchSize);
+        if (myFetchSize != 0 || demand == Long.MAX_VALUE) {
+            return myFetchSize;
+        }
+        return (int) Math.min(demand, MAX_DEMAND_FETCH_SIZE);
+    }
+
     @Override
     public int executeUpdate(@NotNull String sql, Map<String, ?> args) {
         return this.executionWatcher.call(new Execution(SqlStatementType.dml, sql, args),
-                i -> super.executeUpdate(sql, args));
+                i -> retry(i, () -> super.executeUpdate(sql, args)));
     }
 
     @Override
@@ -196,6 +444,18 @@ public class BakiDao extends JdbcSupport implements Baki {
                 i -> super.executeBatchUpdate(sql, args, eachMapper, batchSize));
     }
 
+    @Override
+    protected <T> int executeBatchInsert(@NotNull String sql,
+                                         @NotNull Iterable<T> args,
+                                         @NotNull Function<T, ? extends Map<String, ?>> eachMapper,
+                                         @Range(from = 1, to = Integer.MAX_VALUE) int batchSize) {
+        if (!multiRowInsert) {
+            return executeBatchUpdate(sql, args, eachMapper, batchSize);
+        }
+        return this.executionWatcher.call(new Execution(SqlStatementType.dml, sql, args),
+                i -> super.executeBatchInsert(sql, args, eachMapper, batchSize));
+    }
+
     @Override
     public DataRow executeCallStatement(@NotNull String procedure, Map<String, Param> args) {
         return this.executionWatcher.call(new Execution(SqlStatementType.procedure, procedure, args),
@@ -211,9 +471,50 @@ public class BakiDao extends JdbcSupport implements Baki {
     @Override
     public @NotNull QueryExecutor query(@NotNull String sql) {
         return new QueryExecutor(sql) {
+            @Override
+            public AsyncQueryExecutor async() {
+                return BakiDao.this.async().query(this);
+            }
+
             @Override
             public Stream<DataRow> stream() {
-                return executeQueryStream(sql, args);
+                if (streamLobs) {
+                    return executeQueryStream(sql, args, fetchSize, LobStreams.dataRowMapperFactory(), Function.identity());
+                }
+                return executeQueryStream(sql, args, fetchSize);
+            }
+
+            @Override
+            public Flow.Publisher<DataRow> publisher() {
+                return new RowPublisher<>(demand -> {
+                    int myFetchSize = resolveFetchSize(sql, fetchSize, demand);
+                    if (streamLobs) {
+                        return executeQueryStream(sql, args, myFetchSize, LobStreams.dataRowMapperFactory(), Function.identity());
+                    }
+                    return executeQueryStream(sql, args, myFetchSize);
+                });
+            }
+
+            @Override
+            public <T> Flow.Publisher<T> publisher(Class<T> entityClass) {
+                return new RowPublisher<>(demand -> {
+                    int myFetchSize = resolveFetchSize(sql, fetchSize, demand);
+                    return executeQueryStream(sql, args, myFetchSize,
+                            entityManager.entityRowMapperFactory(entityClass),
+                            d -> d.toEntity(entityClass,
+                                    field -> getEntityMetaProvider().columnMeta(field).getName(),
+                                    getEntityMetaProvider()::columnValue
+                            ));
+                });
+            }
+
+            @Override
+            public List<CompactRow> compactRows() {
+                try (Stream<CompactRow> s = executeQueryStream(sql, args, fetchSize,
+                        (resultSet, executedSql) -> RowDecoder.of(resultSet, executedSql)::createCompactRow,
+                        CompactRow.compactor()::apply)) {
+                    return s.collect(Collectors.toList());
+                }
             }
 
             @Override
@@ -230,13 +531,20 @@ public class BakiDao extends JdbcSupport implements Baki {
                 }
             }
 
+            @Override
+            public <T> Stream<T> stream(Class<T> entityClass) {
+                return executeQueryStream(sql, args, fetchSize,
+                        entityManager.entityRowMapperFactory(entityClass),
+                        d -> d.toEntity(entityClass,
+                                field -> getEntityMetaProvider().columnMeta(field).getName(),
+                                getEntityMetaProvider()::columnValue
+                        ));
+            }
+
             @Override
             public <T> List<T> entities(Class<T> entityClass) {
-                try (Stream<DataRow> s = stream()) {
-                    return s.map(d -> d.toEntity(entityClass,
-                            field -> getEntityMetaProvider().columnMeta(field).getName(),
-                            getEntityMetaProvider()::columnValue
-                    )).collect(Collectors.toList());
+                try (Stream<T> s = stream(entityClass)) {
+                    return s.collect(Collectors.toList());
                 }
             }
 
@@ -276,10 +584,9 @@ public class BakiDao extends JdbcSupport implements Baki {
 
             @Override
             public <T> T findFirstEntity(Class<T> entityClass) {
-                return findFirst().map(d -> d.toEntity(entityClass,
-                        field -> getEntityMetaProvider().columnMeta(field).getName(),
-                        getEntityMetaProvider()::columnValue
-                )).orElse(null);
+                try (Stream<T> s = stream(entityClass)) {
+                    return s.findFirst().orElse(null);
+                }
             }
 
             @Override
@@ -357,6 +664,26 @@ public class BakiDao extends JdbcSupport implements Baki {
                         return n;
                     }
 
+                    String generateUpsert(Map<String, ?> data) {
+                        return sqlGenerator.generateNamedParamUpsert(databaseInfo(), finalName, data.keySet(), conditionalColumns, data.keySet());
+                    }
+
+                    @Override
+                    public int upsert(@NotNull Map<String, ?> data) {
+                        return executeUpdate(generateUpsert(data), data);
+                    }
+
+                    @Override
+                    public int upsert(@NotNull Iterable<? extends Map<String, ?>> data) {
+                        return upsert(data, Function.identity());
+                    }
+
+                    @Override
+                    public <T> int upsert(@NotNull Iterable<T> data, @NotNull Function<T, ? extends Map<String, ?>> argMapper) {
+                        Map<String, ?> first = argMapper.apply(data.iterator().next());
+                        return executeBatchInsert(generateUpsert(first), data, argMapper, batchSize);
+                    }
+
                     @Override
                     public int delete(@NotNull Map<String, ?> args) {
                         String delete = sqlGenerator.generateDeleteBy(finalName) + condition;
@@ -398,7 +725,7 @@ public class BakiDao extends JdbcSupport implements Baki {
                 if (enableBatch) {
                     Map<String, ?> first = argMapper.apply(data.iterator().next());
                     String insert = sqlGenerator.generateNamedParamInsert(finalName, first.keySet());
-                    return executeBatchUpdate(insert, data, argMapper, batchSize);
+                    return executeBatchInsert(insert, data, argMapper, batchSize);
                 }
                 int n = 0;
                 for (T arg : data) {
@@ -575,8 +902,9 @@ public class BakiDao extends JdbcSupport implements Baki {
                     @Override
                     public @NotNull Stream<T> stream() {
                         Triple<String, String, Map<String, Object>> query = createQuery();
-                        return executeQueryStream(query.getItem1(), query.getItem3())
-                                .map(d -> d.toEntity(clazz,
+                        return executeQueryStream(query.getItem1(), query.getItem3(), 0,
+                                entityManager.entityRowMapperFactory(clazz),
+                                d -> d.toEntity(clazz,
                                         f -> getEntityMetaProvider().columnMeta(f).getName(),
                                         getEntityMetaProvider()::columnValue
                                 ));
@@ -688,7 +1016,7 @@ public class BakiDao extends JdbcSupport implements Baki {
                     @Override
                     public int save(Iterable<T> entities) {
                         if (withNullValues) {
-                            return executeBatchUpdate(entityMeta.getInsert(),
+                            return executeBatchInsert(entityMeta.getInsert(),
                                     entities,
                                     e -> {
                                         Args<Object> args = Args.ofEntity(e, field -> getEntityMetaProvider().columnMeta(field).getName());
@@ -844,6 +1172,55 @@ public class BakiDao extends JdbcSupport implements Baki {
                 };
             }
 
+            @Override
+            public Upsert<T> upsert() {
+                return new Upsert<T>() {
+                    final Set<String> keys = new LinkedHashSet<>();
+
+                    @Override
+                    public Upsert<T> by(@NotNull MethodReference<T> column) {
+                        String columnName = parseMethodRefColumn(column);
+                        if (!entityMeta.getInsertColumns().containsKey(columnName)) {
+                            throw new IllegalArgumentException("Cannot find insertable column: " + columnName);
+                        }
+                        keys.add(columnName);
+                        return this;
+                    }
+
+                    Set<String> keys() {
+                        return keys.isEmpty() ? Collections.singleton(entityMeta.getPrimaryKey()) : keys;
+                    }
+
+                    String generateUpsert() {
+                        return sqlGenerator.generateNamedParamUpsert(databaseInfo(),
+                                entityMeta.getTableName(),
+                                entityMeta.getInsertColumns().keySet(),
+                                keys(),
+                                entityMeta.getUpdateColumns().keySet());
+                    }
+
+                    Map<String, Object> toArgs(T entity) {
+                        Args<Object> args = Args.ofEntity(entity, field -> getEntityMetaProvider().columnMeta(field).getName());
+                        for (String key : keys()) {
+                            if (args.get(key) == null) {
+                                throw new IllegalArgumentException("Upsert key column must not be null: " + key);
+                            }
+                        }
+                        return args;
+                    }
+
+                    @Override
+                    public int save(@NotNull T entity) {
+                        return executeUpdate(generateUpsert(), toArgs(entity));
+                    }
+
+                    @Override
+                    public int save(@NotNull Iterable<T> entities) {
+                        return executeBatchInsert(generateUpsert(), entities, this::toArgs, batchSize);
+                    }
+                };
+            }
+
             @Override
             public Delete<T> delete() {
                 return new Delete<T>() {
@@ -891,12 +1268,162 @@ public class BakiDao extends JdbcSupport implements Baki {
 
     @Override
     public int insert(@NotNull String sql, @NotNull Iterable<? extends Map<String, ?>> data) {
-        return executeBatchUpdate(sql, data, Function.identity(), batchSize);
+        return executeBatchInsert(sql, data, Function.identity(), batchSize);
     }
 
     @Override
     public <T> int insert(@NotNull String sql, @NotNull Iterable<T> data, @NotNull Function<T, ? extends Map<String, ?>> argMapper) {
-        return executeBatchUpdate(sql, data, argMapper, batchSize);
+        return executeBatchInsert(sql, data, argMapper, batchSize);
+    }
+
+    /**
+     * Parallel insert by {@link CommitPolicy#AUTO_COMMIT auto commit}.
+     *
+     * @param sql         named parameter insert sql
+     * @param data        data
+     * @param parallelism concurrent partitions (connections)
+     * @return affected rows
+     * @throws ParallelExecutionException if any partition or the data iterator failed
+     * @see #parallelInsert(String, Iterable, Function, int, CommitPolicy)
+     */
+    public int parallelInsert(@NotNull String sql,
+                              @NotNull Iterable<? extends Map<String, ?>> data,
+                              @Range(from = 1, to = Integer.MAX_VALUE) int parallelism) {
+        return parallelInsert(sql, data, Function.identity(), parallelism, CommitPolicy.AUTO_COMMIT);
+    }
+
+    /**
+     * Parallel insert by {@link CommitPolicy#AUTO_COMMIT auto commit}, the stream is read by the caller thread
+     * and not closed.
+     *
+     * @param sql         named parameter insert sql
+     * @param data        data
+     * @param parallelism concurrent partitions (connections)
+     * @param <T>         data type
+     * @return affected rows
+     * @throws ParallelExecutionException if any partition or the data iterator failed
+     * @see #parallelInsert(String, Iterable, Function, int, CommitPolicy)
+     */
+    public <T extends Map<String, ?>> int parallelInsert(@NotNull String sql,
+                                                        @NotNull Stream<T> data,
+                                                        @Range(from = 1, to = Integer.MAX_VALUE) int parallelism) {
+        Iterable<T> iterable = data::iterator;
+        return parallelInsert(sql, iterable, Function.identity(), parallelism, CommitPolicy.AUTO_COMMIT);
+    }
+
+    /**
+     * Parallel insert, the data is split into partitions of {@link #setBatchSize(int) batch size} rows by the
+     * caller thread, and the partitions are executed concurrently on {@code parallelism} pooled connections,
+     * each partition is executed by batch (or {@link #setMultiRowInsert(boolean) multi-row insert}), e.g.
+     * <blockquote>
+     * <pre>
+     * try (Stream&lt;DataRow&gt; s = source.query("select * from test.user").stream()) {
+     *     bakiDao.parallelInsert("insert into test.user(id, name) values (:id, :name)",
+     *              s::iterator, Function.identity(), 4, CommitPolicy.PER_PARTITION);
+     * }</pre>
+     * </blockquote>
+     * <p>No more partition is submitted after any partition or the data iterator failed, the succeeded partitions
+     * are not rolled back, all failures (include the data iterator error as the partition being read) are reported
+     * by partition order after the running partitions finished, with the submitted but skipped partitions and the
+     * rows read from the input to locate the unwritten rows.</p>
+     *
+     * @param sql          named parameter insert sql
+     * @param data         data
+     * @param argMapper    each data mapping to args function
+     * @param parallelism  concurrent partitions (connections)
+     * @param commitPolicy commit policy of each partition
+     * @param <T>          data type
+     * @return affected rows
+     * @throws IllegalStateException      if transaction is active, partitions cannot join the current transaction
+     * @throws ParallelExecutionException if any partition or the data iterator failed
+     */
+    public <T> int parallelInsert(@NotNull String sql,
+                                  @NotNull Iterable<T> data,
+                                  @NotNull Function<T, ? extends Map<String, ?>> argMapper,
+                                  @Range(from = 1, to = Integer.MAX_VALUE) int parallelism,
+                                  @NotNull CommitPolicy commitPolicy) {
+        if (AbstractTransactionSyncManager.isTransactionActive()) {
+            throw new IllegalStateException("Parallel insert cannot be executed in transaction, partitions are executed on other connections.");
+        }
+        final int partitionSize = batchSize;
+        final int maxInFlight = parallelism * 2;
+        final Semaphore permits = new Semaphore(maxInFlight);
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final LongAdder affected = new LongAdder();
+        final List<ParallelExecutionException.PartitionFailure> failures = Collections.synchronizedList(new ArrayList<>());
+        final List<ParallelExecutionException.Partition> skipped = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger threadNum = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "baki-parallel-insert-" + threadNum.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long readRows = 0;
+        try {
+            int partition = 0;
+            long row = 0;
+            List<T> rows = Collections.emptyList();
+            try {
+                Iterator<T> iterator = data.iterator();
+                while (!failed.get() && iterator.hasNext()) {
+                    rows = new ArrayList<>(partitionSize);
+                    while (rows.size() < partitionSize && iterator.hasNext()) {
+                        rows.add(iterator.next());
+                    }
+                    permits.acquire();
+                    final List<T> myRows = rows;
+                    final int myPartition = partition;
+                    final long firstRow = row;
+                    try {
+                        executor.execute(() -> {
+                            try {
+                                if (failed.get()) {
+                                    skipped.add(new ParallelExecutionException.Partition(myPartition, firstRow, myRows.size()));
+                                    return;
+                                }
+                                int n = commitPolicy == CommitPolicy.PER_PARTITION
+                                        ? Tx.using(() -> executeBatchInsert(sql, myRows, argMapper, partitionSize))
+                                        : executeBatchInsert(sql, myRows, argMapper, partitionSize);
+                                affected.add(n);
+                            } catch (Throwable e) {
+                                failed.set(true);
+                                failures.add(new ParallelExecutionException.PartitionFailure(myPartition, firstRow, myRows.size(), e));
+                            } finally {
+                                permits.release();
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        permits.release();
+                        throw e;
+                    }
+                    partition++;
+                    row += rows.size();
+                    rows = Collections.emptyList();
+                }
+                readRows = row;
+            } catch (RuntimeException | Error e) {
+                // producer (e.g. source stream) failed, stop submitting and report it with the running partitions.
+                failed.set(true);
+                failures.add(new ParallelExecutionException.PartitionFailure(partition, row, rows.size(), e));
+                readRows = row + rows.size();
+            }
+            // wait for all partitions finished.
+            permits.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Parallel insert interrupted.", e);
+        } finally {
+            executor.shutdown();
+        }
+        if (!failures.isEmpty()) {
+            List<ParallelExecutionException.PartitionFailure> ordered = new ArrayList<>(failures);
+            ordered.sort(Comparator.comparingInt(ParallelExecutionException.PartitionFailure::getPartition));
+            List<ParallelExecutionException.Partition> orderedSkipped = new ArrayList<>(skipped);
+            orderedSkipped.sort(Comparator.comparingInt(ParallelExecutionException.Partition::getPartition));
+            throw new ParallelExecutionException(affected.intValue(), ordered, orderedSkipped, readRows);
+        }
+        return affected.intValue();
     }
 
     @Override
@@ -939,6 +1466,11 @@ public class BakiDao extends JdbcSupport implements Baki {
         return executeAny(sql, args);
     }
 
+    @Override
+    public @NotNull List<DataRow> executeAll(@NotNull String sql, Map<String, ?> args) {
+        return executeAnyResults(sql, args);
+    }
+
     @Override
     public int execute(@NotNull String sql, @NotNull Iterable<? extends Map<String, ?>> args) {
         return executeBatchUpdate(sql, args, Function.identity(), batchSize);
@@ -968,9 +1500,10 @@ public class BakiDao extends JdbcSupport implements Baki {
     }
 
     /**
-     * Get the database info, if provider is null or returns null, the default initialization returns.
+     * Get the database info, if provider is null or returns null, the database info of the datasource returns.
      *
      * @return current database info
+     * @see #databaseInfo(DataSource)
      */
     @Override
     public @NotNull DatabaseInfo databaseInfo() {
@@ -980,7 +1513,40 @@ public class BakiDao extends JdbcSupport implements Baki {
                 return info;
             }
         }
-        return this.databaseInfo;
+        return databaseInfo(dataSource);
+    }
+
+    /**
+     * Get the database info of the datasource, it's resolved lazily when first time required and cached
+     * until {@link #invalidateDatabaseInfo()} called.
+     *
+     * @param dataSource datasource
+     * @return database info
+     */
+    protected @NotNull DatabaseInfo databaseInfo(@NotNull DataSource dataSource) {
+        DatabaseInfo info = databaseInfoCache.get(dataSource);
+        if (info != null) {
+            return info;
+        }
+        Connection connection = null;
+        try {
+            connection = DataSourceUtils.getConnection(dataSource);
+            info = DatabaseInfo.of(connection);
+        } catch (SQLException e) {
+            throw wrappedDataAccessException(null, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        DatabaseInfo prev = databaseInfoCache.putIfAbsent(dataSource, info);
+        return prev != null ? prev : info;
+    }
+
+    /**
+     * Clear the cached database info, it will be resolved again when next time required,
+     * e.g. the datasource is switched to another database.
+     */
+    public void invalidateDatabaseInfo() {
+        databaseInfoCache.clear();
     }
 
     /**
@@ -1010,17 +1576,18 @@ public class BakiDao extends JdbcSupport implements Baki {
             }
             String myRecordQuery = recordQuery.trim();
             boolean isSqlRef = myRecordQuery.startsWith("&");
+            Map<String, Object> countArgs = args;
             if (count == null) {
                 String finalCountQuery = countQuery;
                 if (finalCountQuery == null) {
                     if (isSqlRef) {
                         finalCountQuery = XQLFileManager.addModifier(myRecordQuery, SQL_REF_MODIFIER_COUNT);
-                        args.put(ARG_INTERNAL_PAGE_HELPER_KEY, pageHelper);
+                        countArgs = LayeredArgs.of(args, Collections.singletonMap(ARG_INTERNAL_PAGE_HELPER_KEY, pageHelper));
                     } else {
                         finalCountQuery = pageHelper.countSql(myRecordQuery);
                     }
                 }
-                try (Stream<DataRow> s = executeQueryStream(finalCountQuery, args)) {
+                try (Stream<DataRow> s = executeQueryStream(finalCountQuery, countArgs)) {
                     count = s.findFirst()
                             .map(d -> d.getInt(0))
                             .orElse(0);
@@ -1034,6 +1601,7 @@ public class BakiDao extends JdbcSupport implements Baki {
             pageHelper.init(page, size, count);
 
             String pageQuery;
+            Map<String, Object> internalArgs = null;
             Args<Integer> pagedArgs = pageHelper.pagedArgs();
             if (disablePageSql) {
                 pageQuery = myRecordQuery;
@@ -1042,13 +1610,12 @@ public class BakiDao extends JdbcSupport implements Baki {
             } else {
                 if (isSqlRef) {
                     pageQuery = XQLFileManager.addModifier(myRecordQuery, SQL_REF_MODIFIER_PAGE);
-                    args.put(ARG_INTERNAL_PAGE_HELPER_KEY, pageHelper);
+                    internalArgs = Collections.singletonMap(ARG_INTERNAL_PAGE_HELPER_KEY, pageHelper);
                 } else {
                     pageQuery = pageHelper.pagedSql(namedParamPrefix, myRecordQuery);
                 }
             }
-            args.putAll(pagedArgs);
-            try (Stream<DataRow> s = executeQueryStream(pageQuery, args)) {
+            try (Stream<DataRow> s = executeQueryStream(pageQuery, LayeredArgs.of(args, internalArgs, pagedArgs))) {
                 List<T> list = s.peek(d -> d.remove(PageHelper.ROW_NUM_KEY))
                         .map(mapper)
                         .collect(Collectors.toList());
@@ -1107,22 +1674,19 @@ public class BakiDao extends JdbcSupport implements Baki {
      */
     @Override
     protected SqlGenerator.PreparedSqlMetaData prepareSql(@NotNull String sql, Map<String, ?> args) {
-        Map<String, Object> myArgs = new HashMap<>();
-        if (args != null) {
-            myArgs.putAll(args);
-        }
+        // layered views instead of copies: user args -> internal args -> generated args.
+        LayeredArgs myArgs = LayeredArgs.of(args);
         String mySql = sql.trim();
         DatabaseInfo info = databaseInfo();
         if (mySql.startsWith("&")) {
             log.debug("SQL Name: {}", mySql);
             String sqlRef = mySql.substring(1);
 
-            Map<String, Object> scopedArgs = new HashMap<>(myArgs);
-            scopedArgs.put(ARG_DATABASE_ID_KEY, info);
+            Map<String, Object> scopedArgs = LayeredArgs.of(args, Collections.singletonMap(ARG_DATABASE_ID_KEY, info));
             Pair<String, Map<String, Object>> result = xqlFileManager.get(sqlRef, scopedArgs);
 
             mySql = result.getItem1();
-            myArgs.putAll(result.getItem2());
+            myArgs = LayeredArgs.of(args, result.getItem2());
 
             String modifier = XQLFileManager.extractModifier(sqlRef);
             if (modifier != null) {
@@ -1146,10 +1710,10 @@ public class BakiDao extends JdbcSupport implements Baki {
             mySql = sqlInterceptor.preHandle(sql, mySql, myArgs, info);
         }
         if (mySql.contains("${")) {
-            mySql = SqlUtils.formatSqlTemplate(mySql, myArgs);
-            if (xqlFileManager != null) {
-                mySql = SqlUtils.formatSqlTemplate(mySql, xqlFileManager.getConstants());
-            }
+            SqlTemplate template = xqlFileManager != null
+                    ? xqlFileManager.getSqlTemplate(mySql)
+                    : SqlTemplate.of(mySql);
+            mySql = template.format(myArgs);
         }
         if (log.isDebugEnabled()) {
             String nl = mySql.contains("\n") ? "\n" : "";
@@ -1164,7 +1728,7 @@ public class BakiDao extends JdbcSupport implements Baki {
             });
             log.debug("Args: {}", sj);
         }
-        return sqlGenerator.generatePreparedSql(mySql, myArgs);
+        return sqlGenerator.generatePreparedSql(mySql, myArgs, info);
     }
 
     @Override
@@ -1181,11 +1745,74 @@ public class BakiDao extends JdbcSupport implements Baki {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>If the datasource is {@link ReadWriteRoutingDataSource}, the query out of transaction is routed to the read replica.</p>
+     */
+    @Override
+    protected @NotNull Connection getQueryConnection() {
+        if (dataSource instanceof ReadWriteRoutingDataSource && !AbstractTransactionSyncManager.isTransactionActive()) {
+            try {
+                return ((ReadWriteRoutingDataSource) dataSource).getReadConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Fetch read connection failed.", e);
+            }
+        }
+        return getConnection();
+    }
+
     @Override
     protected void releaseConnection(Connection connection, DataSource dataSource) {
         DataSourceUtils.releaseConnection(connection, dataSource);
     }
 
+    /**
+     * Get the prepared statement cache of the transactional connection, the cache is bound to
+     * the connection holder and closed after the transaction completed.
+     *
+     * @param connection connection
+     * @return statement cache or null if statement cache disabled or the connection is not transactional
+     */
+    @Override
+    protected @Nullable StatementCache getStatementCache(Connection connection) {
+        if (statementCacheSize < 1) {
+            return null;
+        }
+        ConnectionHolder holder = AbstractTransactionSyncManager.getResource(dataSource);
+        if (holder == null || holder.getConnection() != connection) {
+            return null;
+        }
+        StatementCache cache = holder.getStatementCache();
+        if (cache == null) {
+            cache = new StatementCache(statementCacheSize, statementCacheMetrics);
+            holder.setStatementCache(cache);
+        }
+        return cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The row width is resolved by {@link PreparedStatement#getMetaData()} once and cached by the prepared sql.</p>
+     */
+    @Override
+    protected int adaptFetchSize(String sql, PreparedStatement ps, int fetchSize) throws SQLException {
+        if (fetchBufferSize > 0) {
+            Long rowWidth = rowWidthCache.getIfPresent(sql);
+            if (rowWidth == null) {
+                ResultSetMetaData metaData;
+                try {
+                    metaData = ps.getMetaData();
+                } catch (SQLFeatureNotSupportedException e) {
+                    metaData = null;
+                }
+                rowWidth = metaData == null ? 0L : JdbcUtils.estimateRowWidth(metaData);
+                rowWidthCache.put(sql, rowWidth);
+            }
+            return JdbcUtils.estimateFetchSize(rowWidth, fetchBufferSize, fetchSize);
+        }
+        return fetchSize;
+    }
+
     @Override
     protected void doHandleStatementValue(@NotNull PreparedStatement ps,
                                           @Range(from = 1, to = Integer.MAX_VALUE) int index,
@@ -1193,6 +1820,14 @@ public class BakiDao extends JdbcSupport implements Baki {
         statementValueHandler.handle(ps, index, value, databaseInfo());
     }
 
+    @Override
+    protected void doHandleStatementValue(@NotNull PreparedStatement ps,
+                                          @Range(from = 1, to = Integer.MAX_VALUE) int index,
+                                          @Nullable Object value,
+                                          @Nullable DatabaseInfo databaseInfo) throws SQLException {
+        statementValueHandler.handle(ps, index, value, databaseInfo != null ? databaseInfo : databaseInfo());
+    }
+
     @Override
     protected void onStatementInit(Statement statement, String sql, Map<String, ?> args) throws SQLException {
         int timeout = queryTimeoutHandler.handle(sql, args);
@@ -1261,6 +1896,101 @@ public class BakiDao extends JdbcSupport implements Baki {
         this.batchSize = batchSize;
     }
 
+    /**
+     * Get the asynchronous facade which executes on the {@link #setAsyncExecutor(Executor) async executor}.
+     *
+     * @return AsyncBaki
+     * @see AsyncBaki#defaultExecutor(int, int)
+     */
+    public AsyncBaki async() {
+        AsyncBaki async = asyncBaki;
+        if (async == null) {
+            synchronized (this) {
+                async = asyncBaki;
+                if (async == null) {
+                    if (asyncExecutor == null) {
+                        asyncExecutor = AsyncBaki.defaultExecutor(Math.max(4, Runtime.getRuntime().availableProcessors() * 2), 1024);
+                    }
+                    async = new AsyncBaki(this, asyncExecutor);
+                    asyncBaki = async;
+                }
+            }
+        }
+        return async;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The statement query timeout is set by the remaining time (rounded up to seconds) if it's less than
+     * the {@link #setQueryTimeoutHandler(QueryTimeoutHandler) query timeout handler} returned.</p>
+     *
+     * @throws DataAccessException if the deadline exceeded, cause is {@link java.sql.SQLTimeoutException}
+     *                             or the statement cancelled error of the driver
+     */
+    @Override
+    public <T> T withDeadline(@NotNull Duration timeout, @NotNull Supplier<T> supplier) {
+        ExecutionScope scope = ExecutionScope.withDeadline(timeout);
+        ScheduledFuture<?> watchdog = scope.watch(null);
+        try {
+            return scope.call(supplier);
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The queries are executed on the caller thread and the {@link #setAsyncExecutor(Executor) async executor},
+     * max 4 concurrent queries by default.</p>
+     */
+    @Override
+    public @NotNull QueryBatch parallel() {
+        return new QueryBatch(async().getExecutor(), 4);
+    }
+
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Set the executor of the asynchronous calls, by default virtual thread per task on Java 21+,
+     * otherwise bounded thread pool.
+     *
+     * @param asyncExecutor executor
+     * @see #async()
+     */
+    public synchronized void setAsyncExecutor(Executor asyncExecutor) {
+        if (asyncExecutor != null) {
+            this.asyncExecutor = asyncExecutor;
+            this.asyncBaki = null;
+        }
+    }
+
+    public boolean isMultiRowInsert() {
+        return multiRowInsert;
+    }
+
+    /**
+     * Rewrite the batch insert ({@link #insert(String, Iterable)}, {@code table(name).enableBatch().insert(...)},
+     * {@code entity(clazz).insert().withNullValues().save(Iterable)}) to multi-row insert, e.g.
+     * <blockquote>
+     * <pre>insert into t(a, b) values (?, ?), (?, ?), ...</pre>
+     * </blockquote>
+     * <p>Rows per statement is limited by {@link #setBatchSize(int) batch size} and the max parameters
+     * of the database, fallback to JDBC batch if the insert sql is not rewritable or the database not supports.</p>
+     * <p>The upsert {@code on conflict ... do update} (e.g. PostgreSQL, Kingbase) is always executed by JDBC batch,
+     * because the rows with duplicate keys in one statement are rejected ("cannot affect row a second time").</p>
+     *
+     * @param multiRowInsert enable multi-row insert
+     * @see com.github.chengyuxing.sql.util.MultiRowInsert
+     * @see DatabaseInfo#getMaxInsertRows(int)
+     */
+    public void setMultiRowInsert(boolean multiRowInsert) {
+        this.multiRowInsert = multiRowInsert;
+    }
+
     public char getNamedParamPrefix() {
         return namedParamPrefix;
     }
@@ -1309,6 +2039,38 @@ public class BakiDao extends JdbcSupport implements Baki {
         this.queryCacheManager = queryCacheManager;
     }
 
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Set the retry policy of the failed single statement execution (query, update and execute),
+     * the retry count is available by {@link Execution#getRetries()} in the {@link #setExecutionWatcher(AroundExecutor) execution watcher},
+     * the batch and procedure execution are not retried, by default no retry.
+     * <p>The arbitrary sql execution is not retried unless {@link #setRetryExecuteAny(boolean) enabled}.</p>
+     *
+     * @param retryPolicy retry policy
+     * @see com.github.chengyuxing.sql.support.TransientRetryPolicy
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public boolean isRetryExecuteAny() {
+        return retryExecuteAny;
+    }
+
+    /**
+     * Retry the arbitrary sql execution ({@link #execute(String, Map)}) by the {@link #setRetryPolicy(RetryPolicy) retry policy},
+     * enable it only if the executed sql is idempotent, e.g. the multi statements script with auto-commit, the statements
+     * before the failed one have been committed and will be executed again, by default false.
+     *
+     * @param retryExecuteAny retry the arbitrary sql execution
+     */
+    public void setRetryExecuteAny(boolean retryExecuteAny) {
+        this.retryExecuteAny = retryExecuteAny;
+    }
+
     public void setExecutionWatcher(AroundExecutor<Execution> executionWatcher) {
         if (executionWatcher != null) {
             this.executionWatcher = executionWatcher;
@@ -1333,4 +2095,54 @@ public class BakiDao extends JdbcSupport implements Baki {
     public void setDatabaseInfoProvider(DatabaseInfoProvider databaseInfoProvider) {
         this.databaseInfoProvider = databaseInfoProvider;
     }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Set max cached prepared statements of each transactional connection, statements
+     * are reused in the same transaction and closed after the transaction completed.
+     *
+     * @param statementCacheSize max cached statements, 0 means disabled
+     */
+    public void setStatementCacheSize(@Range(from = 0, to = Integer.MAX_VALUE) int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public StatementCache.Metrics getStatementCacheMetrics() {
+        return statementCacheMetrics;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Set global stream query fetch size, the result set is read by forward-only cursor
+     * with {@code fetchSize} rows per round trip.
+     *
+     * @param fetchSize rows per round trip, 0 means driver default
+     * @see QueryExecutor#fetchSize(int)
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getFetchBufferSize() {
+        return fetchBufferSize;
+    }
+
+    /**
+     * Set max bytes per stream query fetch, the fetch size is reduced by estimated row width
+     * for wide rows, e.g. 8MB buffer and 2KB row width: fetch size is at most 4096.
+     * <p>The row width is resolved from {@link PreparedStatement#getMetaData()} before executed, so it only
+     * applies to the query which {@link #setFetchSize(int) fetch size} set (greater than 0), and the requested
+     * fetch size is used as is if the driver cannot describe the statement before executed.</p>
+     *
+     * @param fetchBufferSize max bytes per fetch, 0 means disabled
+     */
+    public void setFetchBufferSize(@Range(from = 0, to = Integer.MAX_VALUE) int fetchBufferSize) {
+        this.fetchBufferSize = fetchBufferSize;
+    }
 }
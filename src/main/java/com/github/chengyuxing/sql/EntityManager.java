@@ -1,11 +1,30 @@
 package com.github.chengyuxing.sql;
 
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.sql.util.BoundedCache;
+import com.github.chengyuxing.sql.util.RowDecoder;
+import com.github.chengyuxing.sql.util.RowMapper;
 import com.github.chengyuxing.sql.util.SqlGenerator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -43,7 +62,15 @@ public class EntityManager implements AutoCloseable {
         Object columnValue(Field field, Object value);
     }
 
+    /**
+     * Max cached entity mapper count.
+     */
+    public static final int DEFAULT_ENTITY_MAPPER_CACHE_SIZE = 512;
     private final Map<Class<?>, EntityMeta> classInformation = new ConcurrentHashMap<>();
+    /**
+     * Entity mapper cache, key: [entity class, column names...]
+     */
+    private final BoundedCache<List<Object>, EntityMapper<?>> entityMappers = new BoundedCache<>(DEFAULT_ENTITY_MAPPER_CACHE_SIZE);
     private final SqlGenerator sqlGenerator;
     private EntityMetaProvider entityMetaProvider;
 
@@ -75,9 +102,41 @@ public class EntityManager implements AutoCloseable {
         return columns;
     }
 
+    /**
+     * Get the cached entity mapper of the entity class and result columns.
+     *
+     * @param clazz   entity class
+     * @param columns result column names
+     * @param <T>     entity type
+     * @return entity mapper
+     */
+    public <T> EntityMapper<T> getEntityMapper(@NotNull Class<T> clazz, @NotNull String[] columns) {
+        List<Object> key = new ArrayList<>(columns.length + 1);
+        key.add(clazz);
+        Collections.addAll(key, columns);
+        //noinspection unchecked
+        return (EntityMapper<T>) entityMappers.get(key, k -> new EntityMapper<>(clazz, columns));
+    }
+
+    /**
+     * Create a row mapper factory which maps the result set row to entity directly.
+     *
+     * @param clazz entity class
+     * @param <T>   entity type
+     * @return row mapper factory
+     */
+    public <T> RowMapper.Factory<T> entityRowMapperFactory(@NotNull Class<T> clazz) {
+        return (resultSet, executedSql) -> {
+            RowDecoder decoder = RowDecoder.of(resultSet, executedSql);
+            EntityMapper<T> mapper = getEntityMapper(clazz, decoder.getNames());
+            return rs -> mapper.map(decoder, rs);
+        };
+    }
+
     @Override
     public void close() throws Exception {
         classInformation.clear();
+        entityMappers.clear();
     }
 
     public SqlGenerator getSqlGenerator() {
@@ -90,6 +149,241 @@ public class EntityManager implements AutoCloseable {
 
     public void setEntityMetaProvider(@NotNull EntityMetaProvider entityMetaProvider) {
         this.entityMetaProvider = entityMetaProvider;
+        this.entityMappers.clear();
+    }
+
+    public BoundedCache<List<Object>, EntityMapper<?>> getEntityMapperCache() {
+        return entityMappers;
+    }
+
+    /**
+     * Entity mapper, built once per (entity class, result columns), resolves the field, setter and
+     * column index once, reads the typed values from the result set and set to the entity directly,
+     * the rows fall back to {@link DataRow#toEntity(Class, java.util.function.Function, java.util.function.BiFunction)}
+     * if the entity has no no-args constructor or since a value can not be assigned to the field, the errors
+     * thrown by the {@link EntityMetaProvider} and the setters are not caught.
+     *
+     * @param <T> entity type
+     */
+    public class EntityMapper<T> {
+        private final Class<T> clazz;
+        private final String[] columns;
+        private final MethodHandle constructor;
+        private final Field[] fields;
+        private final MethodHandle[] setters;
+        /**
+         * Map by {@link DataRow#toEntity(Class, java.util.function.Function, java.util.function.BiFunction)},
+         * the entity has no no-args constructor or a column value can not be assigned to the field.
+         */
+        private volatile boolean fallback;
+
+        EntityMapper(Class<T> clazz, String[] columns) {
+            this.clazz = clazz;
+            this.columns = columns;
+            this.constructor = findConstructor(clazz);
+            this.fallback = constructor == null;
+            Map<String, Field> mapping = new HashMap<>();
+            for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isFinal(modifiers) || Modifier.isStatic(modifiers)) {
+                        continue;
+                    }
+                    mapping.putIfAbsent(entityMetaProvider.columnMeta(field).getName(), field);
+                }
+            }
+            this.fields = new Field[columns.length];
+            this.setters = new MethodHandle[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                Field field = mapping.get(columns[i]);
+                if (field != null) {
+                    MethodHandle setter = findSetter(clazz, field);
+                    if (setter != null) {
+                        fields[i] = field;
+                        setters[i] = setter;
+                    }
+                }
+            }
+        }
+
+        private MethodHandle findConstructor(Class<T> clazz) {
+            try {
+                Constructor<T> ctor = clazz.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                return MethodHandles.lookup().unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private MethodHandle findSetter(Class<T> clazz, Field field) {
+            String name = field.getName();
+            String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            MethodHandle setter;
+            try {
+                Method method = clazz.getMethod(setterName, field.getType());
+                setter = MethodHandles.lookup().unreflect(method);
+            } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+                try {
+                    field.setAccessible(true);
+                    setter = MethodHandles.lookup().unreflectSetter(field);
+                } catch (IllegalAccessException | RuntimeException ex) {
+                    return null;
+                }
+            }
+            return setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+
+        /**
+         * Map the current row of result set to entity.
+         *
+         * @param decoder   row decoder of the result set
+         * @param resultSet result set
+         * @return entity
+         * @throws SQLException ex
+         */
+        public T map(@NotNull RowDecoder decoder, @NotNull ResultSet resultSet) throws SQLException {
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = decoder.getValue(resultSet, i + 1);
+            }
+            if (fallback) {
+                return toEntity(values, null);
+            }
+            Object[] converted = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                Field field = fields[i];
+                if (field == null) {
+                    continue;
+                }
+                Object value = entityMetaProvider.columnValue(field, values[i]);
+                converted[i] = convertValue(field.getType(), value);
+                if (converted[i] == UNCONVERTIBLE) {
+                    // the column type will not change, the following rows are mapped by fallback directly.
+                    fallback = true;
+                    Map<Field, Object> columnValues = new HashMap<>();
+                    for (int j = 0; j <= i; j++) {
+                        if (fields[j] != null) {
+                            columnValues.put(fields[j], j == i ? value : converted[j]);
+                        }
+                    }
+                    return toEntity(values, columnValues);
+                }
+            }
+            try {
+                Object entity = constructor.invokeExact();
+                for (int i = 0; i < converted.length; i++) {
+                    Field field = fields[i];
+                    if (field == null || (converted[i] == null && field.getType().isPrimitive())) {
+                        continue;
+                    }
+                    setters[i].invokeExact(entity, converted[i]);
+                }
+                return clazz.cast(entity);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Map entity " + clazz.getName() + " error.", e);
+            }
+        }
+
+        /**
+         * Map to entity by {@link DataRow#toEntity(Class, java.util.function.Function, java.util.function.BiFunction)}.
+         *
+         * @param values       column values
+         * @param columnValues column values which already handled by {@link EntityMetaProvider#columnValue(Field, Object)}
+         * @return entity
+         */
+        private T toEntity(Object[] values, Map<Field, Object> columnValues) {
+            return DataRow.of(columns, values).toEntity(clazz,
+                    field -> entityMetaProvider.columnMeta(field).getName(),
+                    (field, value) -> columnValues != null && columnValues.containsKey(field)
+                            ? columnValues.get(field)
+                            : entityMetaProvider.columnValue(field, value));
+        }
+
+        public Class<T> getEntityClass() {
+            return clazz;
+        }
+
+        public String[] getColumns() {
+            return columns.clone();
+        }
+    }
+
+    private static final Object UNCONVERTIBLE = new Object();
+
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_WRAPPERS = new HashMap<>();
+
+    static {
+        PRIMITIVE_WRAPPERS.put(int.class, Integer.class);
+        PRIMITIVE_WRAPPERS.put(long.class, Long.class);
+        PRIMITIVE_WRAPPERS.put(short.class, Short.class);
+        PRIMITIVE_WRAPPERS.put(byte.class, Byte.class);
+        PRIMITIVE_WRAPPERS.put(double.class, Double.class);
+        PRIMITIVE_WRAPPERS.put(float.class, Float.class);
+        PRIMITIVE_WRAPPERS.put(boolean.class, Boolean.class);
+        PRIMITIVE_WRAPPERS.put(char.class, Character.class);
+    }
+
+    /**
+     * Convert the column value to the field type, only common conversions are supported, integral targets require exact values.
+     *
+     * @param type  field type
+     * @param value column value
+     * @return converted value or {@link #UNCONVERTIBLE}
+     */
+    private static Object convertValue(Class<?> type, Object value) {
+        if (value == null) {
+            return null;
+        }
+        Class<?> target = type.isPrimitive() ? PRIMITIVE_WRAPPERS.get(type) : type;
+        if (target.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number) {
+            Number n = (Number) value;
+            if (target == Double.class) return n.doubleValue();
+            if (target == Float.class) return n.floatValue();
+            try {
+                BigDecimal d = n instanceof BigDecimal ? (BigDecimal) n : new BigDecimal(n.toString());
+                if (target == Integer.class) return d.intValueExact();
+                if (target == Long.class) return d.longValueExact();
+                if (target == Short.class) return d.shortValueExact();
+                if (target == Byte.class) return d.byteValueExact();
+                if (target == BigDecimal.class) return d;
+                if (target == BigInteger.class) return d.toBigIntegerExact();
+            } catch (ArithmeticException | NumberFormatException e) {
+                return UNCONVERTIBLE;
+            }
+            return UNCONVERTIBLE;
+        }
+        if (value instanceof Timestamp) {
+            Timestamp t = (Timestamp) value;
+            if (target == LocalDateTime.class) return t.toLocalDateTime();
+            if (target == LocalDate.class) return t.toLocalDateTime().toLocalDate();
+            if (target == LocalTime.class) return t.toLocalDateTime().toLocalTime();
+            if (target == Instant.class) return t.toInstant();
+            return UNCONVERTIBLE;
+        }
+        if (value instanceof java.sql.Date) {
+            java.sql.Date d = (java.sql.Date) value;
+            if (target == LocalDate.class) return d.toLocalDate();
+            if (target == LocalDateTime.class) return d.toLocalDate().atStartOfDay();
+            return UNCONVERTIBLE;
+        }
+        if (value instanceof Time) {
+            if (target == LocalTime.class) return ((Time) value).toLocalTime();
+            return UNCONVERTIBLE;
+        }
+        if (value instanceof String && target.isEnum()) {
+            for (Object constant : target.getEnumConstants()) {
+                if (((Enum<?>) constant).name().equals(value)) {
+                    return constant;
+                }
+            }
+        }
+        return UNCONVERTIBLE;
     }
 
     public class EntityMeta {
@@ -0,0 +1,329 @@
+package com.github.chengyuxing.sql;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.sql.datasource.AbstractTransactionSyncManager;
+import com.github.chengyuxing.sql.dsl.Query;
+import com.github.chengyuxing.sql.exceptions.DataAccessException;
+import com.github.chengyuxing.sql.page.IPageable;
+import com.github.chengyuxing.sql.plugins.QueryExecutor;
+import com.github.chengyuxing.sql.support.ExecutionScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Scatter-gather of independent queries, the queries are executed concurrently on separate connections
+ * and the results are collected together, e.g.
+ * <blockquote>
+ * <pre>
+ * QueryBatch batch = baki.parallel().deadline(Duration.ofSeconds(3));
+ * QueryBatch.Result&lt;List&lt;DataRow&gt;&gt; users = batch.add(baki.query("select * from test.user"));
+ * QueryBatch.Result&lt;Long&gt; count = batch.count(baki.entity(Guest.class).query());
+ * batch.execute();
+ * System.out.println(users.get().size() + ", " + count.get());
+ * </pre>
+ * </blockquote>
+ * <p>Fail fast: the first failed query cancels the running and the remaining queries.</p>
+ * <p>The caller thread executes the queries too, the executor only provides the extra workers,
+ * so it's safe to execute the batch on the thread of the same (bounded) executor.</p>
+ * <p>If the transaction is active on the caller thread, the queries are executed sequentially
+ * with the transactional connection.</p>
+ */
+public final class QueryBatch {
+    private final Executor executor;
+    private final List<Result<?>> results = new ArrayList<>();
+    private int maxParallelism;
+    private Duration timeout;
+
+    /**
+     * Constructs a new QueryBatch.
+     *
+     * @param executor       executor to run the queries
+     * @param maxParallelism max concurrent queries
+     */
+    public QueryBatch(@NotNull Executor executor, @Range(from = 1, to = Integer.MAX_VALUE) int maxParallelism) {
+        this.executor = executor;
+        this.maxParallelism = maxParallelism;
+    }
+
+    /**
+     * Set max concurrent queries, it also limits the connections taken from the pool at the same time.
+     *
+     * @param maxParallelism max concurrent queries
+     * @return QueryBatch
+     */
+    public QueryBatch maxParallelism(@Range(from = 1, to = Integer.MAX_VALUE) int maxParallelism) {
+        this.maxParallelism = maxParallelism;
+        return this;
+    }
+
+    /**
+     * Set the shared deadline of all queries which starts from {@link #execute()},
+     * it's limited by the deadline of the outer {@link Baki#withDeadline(Duration, Supplier) scope}.
+     *
+     * @param timeout timeout
+     * @return QueryBatch
+     */
+    public QueryBatch deadline(@NotNull Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Add a query.
+     *
+     * @param query query, e.g. {@code () -> baki.query("...").findFirstRow()}
+     * @param <T>   result type
+     * @return result holder which available after executed
+     */
+    public <T> Result<T> add(@NotNull Supplier<T> query) {
+        Result<T> result = new Result<>(query);
+        results.add(result);
+        return result;
+    }
+
+    /**
+     * Add a query which collects rows.
+     *
+     * @param query query executor
+     * @return result holder which available after executed
+     * @see QueryExecutor#rows()
+     */
+    public Result<List<DataRow>> add(@NotNull QueryExecutor query) {
+        return add(query::rows);
+    }
+
+    /**
+     * Add a query which collects entities.
+     *
+     * @param query       query executor
+     * @param entityClass entity class
+     * @param <T>         entity type
+     * @return result holder which available after executed
+     * @see QueryExecutor#entities(Class)
+     */
+    public <T> Result<List<T>> add(@NotNull QueryExecutor query, @NotNull Class<T> entityClass) {
+        return add(() -> query.entities(entityClass));
+    }
+
+    /**
+     * Add a page query.
+     *
+     * @param pageable page query
+     * @return result holder which available after executed
+     * @see IPageable#collect()
+     */
+    public Result<PagedResource<DataRow>> add(@NotNull IPageable pageable) {
+        return add(pageable::collect);
+    }
+
+    /**
+     * Add a count query.
+     *
+     * @param query entity query
+     * @return result holder which available after executed
+     * @see Query#count()
+     */
+    public Result<Long> count(@NotNull Query<?, ?> query) {
+        return add(query::count);
+    }
+
+    /**
+     * Execute all queries and wait for completion.
+     *
+     * @throws DataAccessException if any query failed, the deadline exceeded or interrupted
+     */
+    public void execute() {
+        if (results.isEmpty()) {
+            return;
+        }
+        ExecutionScope scope = timeout == null ? ExecutionScope.create() : ExecutionScope.withDeadline(timeout);
+        ScheduledFuture<?> watchdog = scope.watch(null);
+        try {
+            if (AbstractTransactionSyncManager.isTransactionActive()) {
+                executeSequential(scope);
+            } else {
+                executeParallel(scope);
+            }
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+        }
+    }
+
+    private void executeSequential(ExecutionScope scope) {
+        try {
+            scope.call(() -> {
+                for (Result<?> result : results) {
+                    result.run();
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            throw failed(scope, e);
+        }
+    }
+
+    private void executeParallel(ExecutionScope scope) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Helpers helpers = new Helpers();
+        Runnable work = () -> {
+            try {
+                scope.call(() -> {
+                    int i;
+                    while (failure.get() == null && !scope.isCancelled() && (i = next.getAndIncrement()) < results.size()) {
+                        results.get(i).run();
+                    }
+                    return null;
+                });
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    scope.cancel();
+                }
+            }
+        };
+        int workers = Math.min(maxParallelism, results.size());
+        for (int i = 1; i < workers; i++) {
+            try {
+                executor.execute(() -> {
+                    if (helpers.enter()) {
+                        try {
+                            work.run();
+                        } finally {
+                            helpers.exit();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the caller thread takes the remaining queries.
+                break;
+            }
+        }
+        // the caller thread is also a worker, so the batch completes even if the executor is saturated
+        // (e.g. the batch is executed on the async executor thread), the helpers not started yet are skipped.
+        work.run();
+        try {
+            if (!helpers.close(scope.remainingNanos())) {
+                scope.cancel();
+                throw new DataAccessException("Query batch deadline exceeded.", new TimeoutException());
+            }
+        } catch (InterruptedException e) {
+            scope.cancel();
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Query batch interrupted.", e);
+        }
+        Throwable e = failure.get();
+        if (e != null) {
+            throw failed(scope, e);
+        }
+    }
+
+    /**
+     * Helper workers which submitted to the executor.
+     */
+    private static final class Helpers {
+        private int running = 0;
+        private boolean closed = false;
+
+        synchronized boolean enter() {
+            if (closed) {
+                return false;
+            }
+            running++;
+            return true;
+        }
+
+        synchronized void exit() {
+            running--;
+            notifyAll();
+        }
+
+        /**
+         * Reject the helpers not started yet and wait for the running helpers.
+         *
+         * @param timeoutNanos timeout, {@link Long#MAX_VALUE} means no timeout
+         * @return false if timeout
+         * @throws InterruptedException if interrupted
+         */
+        synchronized boolean close(long timeoutNanos) throws InterruptedException {
+            closed = true;
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (running > 0) {
+                if (timeoutNanos == Long.MAX_VALUE) {
+                    wait();
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+
+    private RuntimeException failed(ExecutionScope scope, Throwable e) {
+        if (scope.isExpired()) {
+            return new DataAccessException("Query batch deadline exceeded.", e);
+        }
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new DataAccessException("Query batch failed.", e);
+    }
+
+    /**
+     * Result holder of the query.
+     *
+     * @param <T> result type
+     */
+    public static final class Result<T> {
+        private final Supplier<T> query;
+        private volatile T value;
+        private volatile boolean done = false;
+
+        Result(Supplier<T> query) {
+            this.query = query;
+        }
+
+        void run() {
+            value = query.get();
+            done = true;
+        }
+
+        /**
+         * Check the query has been executed successfully.
+         *
+         * @return true if done
+         */
+        public boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Get the query result.
+         *
+         * @return result
+         * @throws IllegalStateException if the batch not executed or the query failed
+         */
+        public T get() {
+            if (!done) {
+                throw new IllegalStateException("Query not executed or failed.");
+            }
+            return value;
+        }
+    }
+}
@@ -15,8 +15,11 @@ import com.github.chengyuxing.common.util.ValueUtils;
 import com.github.chengyuxing.common.util.ReflectUtils;
 import com.github.chengyuxing.common.util.StringUtils;
 import com.github.chengyuxing.sql.exceptions.XQLParseException;
+import com.github.chengyuxing.sql.types.DatabaseInfo;
+import com.github.chengyuxing.sql.util.BoundedCache;
 import com.github.chengyuxing.sql.util.SqlGenerator;
 import com.github.chengyuxing.sql.util.SqlHighlighter;
+import com.github.chengyuxing.sql.util.SqlTemplate;
 import com.github.chengyuxing.sql.util.SqlUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -33,6 +36,7 @@ import java.nio.charset.Charset;
 import java.util.*;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -113,6 +117,14 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
     public static final String XQL_DESC_QUOTE = "@@@";
     public static final String YML = "xql-file-manager.yml";
     public static final char MODIFIER_SIGN = '^';
+    /**
+     * Max cached split plain text (include the template placeholders) count of the loop/variable scope.
+     */
+    public static final int DEFAULT_SCOPE_PLAIN_TEXT_CACHE_SIZE = 2048;
+    /**
+     * Directive parameter condition which only cares about the value shape, e.g. {@code != blank}.
+     */
+    private static final Pattern SHAPE_CONDITION_PATTERN = Pattern.compile("^\\s*(==|!=|=|<>)\\s*(blank|null|empty|true|false)(?![\\w.])");
     /**
      * Notice: function for normalizes the directive line by removing the leading '--' if present.
      */
@@ -127,6 +139,9 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
     private SqlGenerator sqlGenerator = new SqlGenerator(DEFAULT_NAMED_PARAM_PREFIX);
     private volatile Map<String, Resource> resources = Collections.emptyMap();
     private volatile Map<String, IPipe<?>> pipeInstances = Collections.emptyMap();
+    private volatile BoundedCache<List<Object>, String> renderCache = new BoundedCache<>(0);
+    private volatile BoundedCache<String, ScopePlainText> scopePlainTextCache = new BoundedCache<>(DEFAULT_SCOPE_PLAIN_TEXT_CACHE_SIZE);
+    private final BoundedCache<String, SqlTemplate> constantTemplateCache = new BoundedCache<>(SqlTemplate.DEFAULT_CACHE_SIZE);
     private volatile boolean loading;
     private volatile boolean initialized;
 
@@ -479,8 +494,7 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
             Sql sql = e.getValue();
             String source = sql.getSource();
             if (source.contains("${")) {
-                source = SqlUtils.formatSqlTemplate(source, templates);
-                source = SqlUtils.formatSqlTemplate(source, getConstants());
+                source = SqlTemplate.compile(source).format(templates, getConstants());
                 // remove empty line.
                 sql.setSource(StringUtils.removeEmptyLine(source));
                 log.debug("recompiling the sql '{}'", e.getKey());
@@ -581,6 +595,9 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
             loading = true;
             resources = Collections.unmodifiableMap(buildResources());
             pipeInstances = Collections.unmodifiableMap(buildPipeInstances());
+            renderCache = new BoundedCache<>(getRenderCacheSize());
+            scopePlainTextCache = new BoundedCache<>(DEFAULT_SCOPE_PLAIN_TEXT_CACHE_SIZE);
+            constantTemplateCache.clear();
         } finally {
             loading = false;
             initialized = true;
@@ -772,8 +789,24 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
         Sql sql = getSqlObject(name);
         ScriptAst ast = sql.getAst();
         if (ast.isDynamic()) {
+            BoundedCache<List<Object>, String> cache = renderCache;
+            List<Object> cacheKey = null;
+            if (cache.getCapacity() > 0) {
+                cacheKey = sql.renderCacheKey(args);
+                if (cacheKey != null) {
+                    String content = cache.getIfPresent(cacheKey);
+                    if (content != null) {
+                        Map<String, Object> vars = new HashMap<>(1);
+                        vars.put(DynamicSqlEvalContext.GENERATED_VAR_KEY, Collections.emptyMap());
+                        return Pair.of(content, vars);
+                    }
+                }
+            }
             EvalContext context = new DynamicSqlEvalContext(args);
             EvalResult result = scriptEngine.execute(ast, context);
+            if (cacheKey != null && result.getUsedVars().isEmpty()) {
+                cache.put(cacheKey, result.getContent());
+            }
             Map<String, Object> vars = new HashMap<>(1);
             vars.put(DynamicSqlEvalContext.GENERATED_VAR_KEY, result.getUsedVars());
             return Pair.of(result.getContent(), vars);
@@ -796,6 +829,7 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
         super.setNamedParamPrefix(namedParamPrefix);
         if (namedParamPrefix != null && namedParamPrefix != ' ') {
             sqlGenerator = new SqlGenerator(namedParamPrefix);
+            scopePlainTextCache.clear();
         }
     }
 
@@ -808,6 +842,43 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
         return sqlGenerator;
     }
 
+    /**
+     * Get dynamic SQL render cache, it's statistics (hits, misses, evictions) are available.
+     *
+     * @return render cache
+     * @see #setRenderCacheSize(Integer)
+     */
+    public BoundedCache<List<Object>, String> getRenderCache() {
+        return renderCache;
+    }
+
+    /**
+     * Get the compiled SQL template which the placeholders are resolved by {@link #getConstants() constants} in advance,
+     * the resolved templates are cached until {@link #init()} or {@link #setConstants(Map)} called.
+     *
+     * @param template sql string with template variable
+     * @return SQL template bound to the constants
+     * @see SqlTemplate#withConstants(Map)
+     */
+    public SqlTemplate getSqlTemplate(@NotNull String template) {
+        return constantTemplateCache.get(template, t -> SqlTemplate.of(t).withConstants(getConstants()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The SQL templates resolved by the previous constants are invalidated.</p>
+     *
+     * @param constants constants map
+     */
+    @Override
+    public void setConstants(Map<String, Object> constants) {
+        super.setConstants(constants);
+        // invoked by super constructor before fields initialized.
+        if (constantTemplateCache != null) {
+            constantTemplateCache.clear();
+        }
+    }
+
     /**
      * Loading state.
      *
@@ -834,6 +905,9 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
         initialized = false;
         resources = Collections.emptyMap();
         pipeInstances = Collections.emptyMap();
+        renderCache.clear();
+        scopePlainTextCache.clear();
+        constantTemplateCache.clear();
     }
 
     @Override
@@ -857,7 +931,6 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
         public static final String GENERATED_VAR_KEY = "_var";
         public static final String GENERATED_VAR_PREFIX = GENERATED_VAR_KEY + ".";
         private final char namedParamPrefix = getNamedParamPrefix();
-        private final Pattern namedParamPattern = sqlGenerator.getNamedParamPattern();
 
         public DynamicSqlEvalContext(@NotNull Map<String, Object> args) {
             super(args);
@@ -907,72 +980,224 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
         @Override
         protected Pair<String, Map<String, Object>> formatScopePlainText(String text, Map<String, Object> inputs, Map<String, VarMeta> scope) {
             if (scope.isEmpty()) return Pair.of(text, Collections.emptyMap());
-            String formatted = text;
-            if (text.contains("${")) {
-                Map<String, Object> scopeArgs = new HashMap<>(scope.size());
+            Map<String, Object> usedVars = new HashMap<>();
+            // split once and reuse the segments, only the template placeholders are formatted.
+            ScopePlainText plainText = scopePlainTextCache.get(text, t -> new ScopePlainText(t, sqlGenerator, namedParamPrefix));
+            if (!plainText.hasPlaceholder() && !plainText.hasNamedParam()) {
+                return Pair.of(text, usedVars);
+            }
+            Map<String, Object> scopeArgs = Collections.emptyMap();
+            if (plainText.hasPlaceholder()) {
+                scopeArgs = new HashMap<>(scope.size());
                 for (Map.Entry<String, VarMeta> entry : scope.entrySet()) {
                     scopeArgs.put(entry.getKey(), entry.getValue().getValue());
                 }
-                formatted = SqlUtils.formatSqlTemplate(text, scopeArgs);
             }
-            Map<String, Object> usedVars = new HashMap<>();
-            if (formatted.indexOf(namedParamPrefix) != -1) {
-                StringBuffer sb = new StringBuffer();
-                Matcher m = namedParamPattern.matcher(formatted);
-                while (m.find()) {
-                    String name = m.group(1);
-                    String replacement = null;
-                    if (name != null) {
-                        int idx = -1;
-                        for (int i = 0; i < name.length(); i++) {
-                            if (name.charAt(i) == '.') {
-                                idx = i;
-                                break;
-                            }
-                            if (name.charAt(i) == '[') {
-                                idx = i;
-                                break;
-                            }
-                        }
+            String rendered = plainText.render(scopeArgs, name -> scopeParamReplacement(name, scope, usedVars));
+            if (rendered != null) {
+                return Pair.of(rendered, usedVars);
+            }
+            // the formatted values may change the named parameters, format whole text and find again.
+            String formatted = SqlUtils.formatSqlTemplate(text, scopeArgs);
+            formatted = sqlGenerator.replaceNamedParams(formatted, name -> scopeParamReplacement(name, scope, usedVars));
+            return Pair.of(formatted, usedVars);
+        }
 
-                        if (idx == -1 && scope.containsKey(name)) {
-                            VarMeta varMeta = scope.get(name);
-                            String varName = genVarName(varMeta);
-                            replacement = namedParamPrefix
-                                    + GENERATED_VAR_PREFIX
-                                    + varName;
-                            usedVars.put(varName, varMeta.getValue());
-                        } else {
-                            // -- #for item of :data | kv
-                            //  ${item.key} = :item.value
-                            //-- #done
-                            // --------------------------
-                            // name: item.value
-                            // varName: item
-                            if (idx != -1) {
-                                String paramName = name.substring(0, idx);
-                                if (scope.containsKey(paramName)) {
-                                    VarMeta varMeta = scope.get(paramName);
-                                    String varName = genVarName(varMeta);
-                                    replacement = namedParamPrefix
-                                            + GENERATED_VAR_PREFIX
-                                            + varName
-                                            + name.substring(idx);
-                                    usedVars.put(varName, varMeta.getValue());
-                                }
+        /**
+         * Get the replacement of the named parameter which in the current scope.
+         *
+         * @param name     named parameter name
+         * @param scope    current scope variables
+         * @param usedVars used variables collector
+         * @return replacement or null if the named parameter is not scope variable
+         */
+        private String scopeParamReplacement(String name, Map<String, VarMeta> scope, Map<String, Object> usedVars) {
+            int idx = -1;
+            for (int i = 0; i < name.length(); i++) {
+                if (name.charAt(i) == '.') {
+                    idx = i;
+                    break;
+                }
+                if (name.charAt(i) == '[') {
+                    idx = i;
+                    break;
+                }
+            }
+
+            if (idx == -1 && scope.containsKey(name)) {
+                VarMeta varMeta = scope.get(name);
+                String varName = genVarName(varMeta);
+                usedVars.put(varName, varMeta.getValue());
+                return namedParamPrefix
+                        + GENERATED_VAR_PREFIX
+                        + varName;
+            }
+            // -- #for item of :data | kv
+            //  ${item.key} = :item.value
+            //-- #done
+            // --------------------------
+            // name: item.value
+            // varName: item
+            if (idx != -1) {
+                String paramName = name.substring(0, idx);
+                if (scope.containsKey(paramName)) {
+                    VarMeta varMeta = scope.get(paramName);
+                    String varName = genVarName(varMeta);
+                    usedVars.put(varName, varMeta.getValue());
+                    return namedParamPrefix
+                            + GENERATED_VAR_PREFIX
+                            + varName
+                            + name.substring(idx);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Plain text of the loop/variable scope, it is split once by named parameters and template placeholders ({@code ${...}}),
+     * the literal segments are reused and only the placeholders are formatted when rendering.
+     */
+    static final class ScopePlainText {
+        private final char namedParamPrefix;
+        private final List<String> names;
+        /**
+         * Text parts between the named parameters, each part is split to the literal ({@link String}) and
+         * the placeholder ({@link SqlTemplate}) segments, null if the text is not segmentable.
+         */
+        private final Object[][] parts;
+        private final boolean hasPlaceholder;
+
+        ScopePlainText(String text, SqlGenerator sqlGenerator, char namedParamPrefix) {
+            this.namedParamPrefix = namedParamPrefix;
+            Pair<List<String>, List<String>> split = sqlGenerator.splitNamedParams(text);
+            List<String> textParts = split.getItem1();
+            Object[][] myParts = new Object[textParts.size()][];
+            boolean myHasPlaceholder = false;
+            for (int i = 0; i < myParts.length; i++) {
+                Object[] segments = splitPlaceholders(textParts.get(i), i > 0);
+                if (segments == null) {
+                    myParts = null;
+                    break;
+                }
+                myParts[i] = segments;
+                myHasPlaceholder = myHasPlaceholder || segments.length > 1 || (segments.length == 1 && segments[0] instanceof SqlTemplate);
+            }
+            this.names = split.getItem2();
+            this.parts = myParts;
+            this.hasPlaceholder = myParts == null || myHasPlaceholder;
+        }
+
+        /**
+         * Split the text part to the literal and placeholder segments.
+         *
+         * @param part           text part
+         * @param afterNamedParam the part follows the named parameter or not
+         * @return segments or null if the placeholder splits or joins the named parameter, e.g. {@code :${name}}, {@code :id${suffix}}
+         */
+        private Object[] splitPlaceholders(String part, boolean afterNamedParam) {
+            List<Object> segments = new ArrayList<>();
+            int last = 0;
+            int start = part.indexOf("${");
+            while (start != -1) {
+                int end = part.indexOf('}', start + 2);
+                if (end == -1 || (start == 0 && afterNamedParam) || (start > 0 && part.charAt(start - 1) == namedParamPrefix)) {
+                    return null;
+                }
+                String placeholder = part.substring(start, end + 1);
+                if (!isInert(placeholder)) {
+                    return null;
+                }
+                if (start > last) {
+                    segments.add(part.substring(last, start));
+                }
+                segments.add(SqlTemplate.compile(placeholder));
+                last = end + 1;
+                start = part.indexOf("${", last);
+            }
+            if (last < part.length()) {
+                segments.add(part.substring(last));
+            }
+            return segments.toArray();
+        }
+
+        boolean hasPlaceholder() {
+            return hasPlaceholder;
+        }
+
+        boolean hasNamedParam() {
+            return !names.isEmpty();
+        }
+
+        /**
+         * Render the text.
+         *
+         * @param args          template placeholder args
+         * @param paramReplacer named parameter name -&gt; replacement, returns null to keep the original named parameter
+         * @return rendered text or null if the text is not segmentable or the formatted placeholder may change the
+         * named parameters
+         */
+        String render(Map<String, ?> args, Function<String, String> paramReplacer) {
+            if (parts == null) {
+                return null;
+            }
+            String[][] formatted = null;
+            if (hasPlaceholder) {
+                formatted = new String[parts.length][];
+                for (int i = 0; i < parts.length; i++) {
+                    Object[] segments = parts[i];
+                    formatted[i] = new String[segments.length];
+                    for (int j = 0; j < segments.length; j++) {
+                        if (segments[j] instanceof SqlTemplate) {
+                            String value = ((SqlTemplate) segments[j]).format(args);
+                            // empty value joins the literals around it, e.g. '*/${x}*/'
+                            if (value.isEmpty() || !isInert(value)) {
+                                return null;
                             }
+                            formatted[i][j] = value;
                         }
                     }
+                }
+            }
+            StringBuilder sb = new StringBuilder(64);
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    String name = names.get(i - 1);
+                    String replacement = paramReplacer.apply(name);
                     if (replacement != null) {
-                        m.appendReplacement(sb, Matcher.quoteReplacement(replacement));
+                        sb.append(replacement);
+                    } else {
+                        sb.append(namedParamPrefix).append(name);
+                    }
+                }
+                Object[] segments = parts[i];
+                for (int j = 0; j < segments.length; j++) {
+                    if (segments[j] instanceof String) {
+                        sb.append((String) segments[j]);
                     } else {
-                        m.appendReplacement(sb, m.group());
+                        //noinspection DataFlowIssue
+                        sb.append(formatted[i][j]);
                     }
                 }
-                m.appendTail(sb);
-                formatted = sb.toString();
             }
-            return Pair.of(formatted, usedVars);
+            return sb.toString();
+        }
+
+        /**
+         * Check the formatted value never changes the named parameters of the text, it has no named parameter prefix,
+         * quotes, comments and line breaks.
+         *
+         * @param value formatted value
+         * @return true if inert
+         */
+        private boolean isInert(String value) {
+            for (int i = 0, j = value.length(); i < j; i++) {
+                char c = value.charAt(i);
+                if (c == namedParamPrefix || c == '\'' || c == '"' || c == '-' || c == '/' || c == '*' || c == '\n' || c == '\r') {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 
@@ -984,6 +1209,10 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
         private ScriptAst ast;
         private Map<String, String> metadata;
         private String description = "";
+        /**
+         * Directive parameters for render cache [name, shape only], null if not cacheable.
+         */
+        private List<Pair<String, Boolean>> renderParams;
 
         public Sql(@NotNull String source) {
             this.source = source;
@@ -1027,6 +1256,105 @@ public class XQLFileManager extends XQLFileManagerConfig implements AutoCloseabl
          */
         private void buildAst() {
             this.ast = scriptEngine.compile(source);
+            this.renderParams = ast.isDynamic() ? parseRenderParams() : null;
+        }
+
+        /**
+         * Parse the parameters which used by directives, if the parameter only compares with
+         * {@code blank}, {@code null}, {@code empty}, {@code true} or {@code false}, only it's shape matters.
+         *
+         * @return directive parameters [name, shape only] or null if the rendered SQL depends on
+         * loop or variable ({@code #for}, {@code #var})
+         */
+        private List<Pair<String, Boolean>> parseRenderParams() {
+            Map<String, Boolean> params = new LinkedHashMap<>();
+            for (String line : source.split("\n")) {
+                int idx = SqlUtils.indexOfWholeLineComment(line);
+                if (idx == -1) {
+                    continue;
+                }
+                String directive = line.substring(idx + 2).trim();
+                if (!directive.startsWith("#")) {
+                    continue;
+                }
+                if (directive.startsWith("#for") || directive.startsWith("#var")) {
+                    return null;
+                }
+                List<String> names = new ArrayList<>();
+                String marked = sqlGenerator.replaceNamedParams(directive, name -> {
+                    names.add(name);
+                    return "\0";
+                });
+                int pos = 0;
+                for (String name : names) {
+                    pos = marked.indexOf('\0', pos) + 1;
+                    boolean shapeOnly = marked.charAt(pos - 2) != '!' &&
+                            SHAPE_CONDITION_PATTERN.matcher(marked).region(pos, marked.length()).lookingAt();
+                    params.merge(name, shapeOnly, Boolean::logicalAnd);
+                }
+            }
+            List<Pair<String, Boolean>> result = new ArrayList<>(params.size());
+            params.forEach((k, v) -> result.add(Pair.of(k, v)));
+            return Collections.unmodifiableList(result);
+        }
+
+        /**
+         * Create the render cache key by the directive parameters.
+         *
+         * @param args args
+         * @return cache key or null if not cacheable
+         */
+        private List<Object> renderCacheKey(Map<String, Object> args) {
+            List<Pair<String, Boolean>> params = renderParams;
+            if (params == null) {
+                return null;
+            }
+            List<Object> key = new ArrayList<>(params.size() + 1);
+            key.add(this);
+            for (Pair<String, Boolean> param : params) {
+                Object value = args == null ? null : ValueUtils.getDeepValue(args, param.getItem1());
+                Object k = param.getItem2() ? valueShape(value) : value;
+                if (k != null && !isRenderCacheKeyValue(k)) {
+                    return null;
+                }
+                key.add(k);
+            }
+            return key;
+        }
+
+        private Object valueShape(Object value) {
+            if (value instanceof CharSequence) {
+                String s = value.toString();
+                if (s.isEmpty()) {
+                    return "";
+                }
+                if (s.trim().isEmpty()) {
+                    return " ";
+                }
+                if (StringUtils.equalsAnyIgnoreCase(s.trim(), "blank", "null", "empty", "true", "false")) {
+                    return s;
+                }
+                return "string";
+            }
+            if (value instanceof Collection) {
+                return ((Collection<?>) value).isEmpty() ? "[]" : "[...]";
+            }
+            if (value instanceof Map) {
+                return ((Map<?, ?>) value).isEmpty() ? "{}" : "{...}";
+            }
+            if (value != null && value.getClass().isArray()) {
+                return java.lang.reflect.Array.getLength(value) == 0 ? "[]" : "[...]";
+            }
+            return value;
+        }
+
+        private boolean isRenderCacheKeyValue(Object value) {
+            return value instanceof String ||
+                    value instanceof Number ||
+                    value instanceof Boolean ||
+                    value instanceof Character ||
+                    value instanceof Enum ||
+                    value instanceof DatabaseInfo;
         }
 
         @Override
@@ -29,6 +29,7 @@ public class XQLFileManagerConfig {
     private Map<String, Object> constants = new HashMap<>();
     private String charset = "UTF-8";
     private Character namedParamPrefix = DEFAULT_NAMED_PARAM_PREFIX;
+    private Integer renderCacheSize = 0;
     // ----------------optional properties------------------
 
     /**
@@ -107,6 +108,7 @@ public class XQLFileManagerConfig {
             config.setPipes(localPipes);
             config.setCharset(properties.getProperty("charset"));
             config.setNamedParamPrefix(properties.getProperty("namedParamPrefix", ":").charAt(0));
+            config.setRenderCacheSize(Integer.parseInt(properties.getProperty("renderCacheSize", "0").trim()));
             config.copyStateTo(this);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -124,6 +126,7 @@ public class XQLFileManagerConfig {
         other.setCharset(this.charset);
         other.setNamedParamPrefix(this.namedParamPrefix);
         other.setFiles(this.files);
+        other.setRenderCacheSize(this.renderCacheSize);
     }
 
     public String getConfigLocation() {
@@ -257,6 +260,31 @@ public class XQLFileManagerConfig {
         }
     }
 
+    /**
+     * Get dynamic SQL render cache size.
+     *
+     * @return render cache size
+     */
+    public Integer getRenderCacheSize() {
+        return renderCacheSize;
+    }
+
+    /**
+     * Set dynamic SQL render cache size, 0 is default which means cache disabled.
+     * <p>Rendered dynamic SQL is cached by SQL name and the shape of the directive parameters,
+     * e.g. {@code -- #if :name != blank} only cares the name is blank or not,
+     * so that the same shape of args will not be rendered again.</p>
+     * <p>Notice: SQL which contains {@code #for} or {@code #var} is never cached,
+     * pipes in directive expression should be deterministic.</p>
+     *
+     * @param renderCacheSize max cached rendered SQL count
+     */
+    public void setRenderCacheSize(Integer renderCacheSize) {
+        if (renderCacheSize != null && renderCacheSize >= 0) {
+            this.renderCacheSize = renderCacheSize;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -268,6 +296,7 @@ public class XQLFileManagerConfig {
         if (!getConstants().equals(config.getConstants())) return false;
         if (!getPipes().equals(config.getPipes())) return false;
         if (!getCharset().equals(config.getCharset())) return false;
+        if (!getRenderCacheSize().equals(config.getRenderCacheSize())) return false;
         return getNamedParamPrefix().equals(config.getNamedParamPrefix());
     }
 
@@ -278,6 +307,7 @@ public class XQLFileManagerConfig {
         result = 31 * result + getPipes().hashCode();
         result = 31 * result + getCharset().hashCode();
         result = 31 * result + getNamedParamPrefix().hashCode();
+        result = 31 * result + getRenderCacheSize().hashCode();
         return result;
     }
 }
@@ -30,6 +30,10 @@ public abstract class XQLInvocationHandler implements InvocationHandler {
     public static final Pattern CALL_PATTERN = Pattern.compile("^(?:call|proc|func)[^a-z]\\w*");
 
     private final ClassLoader classLoader = this.getClass().getClassLoader();
+    /**
+     * {@link #entityMetaProvider()} or {@link #dataRowMapping(Class)} is overridden.
+     */
+    private final boolean customEntityMapping = isOverridden("entityMetaProvider") || isOverridden("dataRowMapping", Class.class);
 
     protected abstract @NotNull BakiDao baki();
 
@@ -37,6 +41,17 @@ public abstract class XQLInvocationHandler implements InvocationHandler {
         return baki().getEntityManager().getEntityMetaProvider();
     }
 
+    private boolean isOverridden(String name, Class<?>... parameterTypes) {
+        for (Class<?> c = getClass(); c != XQLInvocationHandler.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException ignore) {
+            }
+        }
+        return false;
+    }
+
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         Class<?> clazz = method.getDeclaringClass();
@@ -168,17 +183,25 @@ public abstract class XQLInvocationHandler implements InvocationHandler {
             throw new IllegalArgumentException(method.getDeclaringClass() + "#" + method.getName() + " args must not be Collection");
         }
         @SuppressWarnings("unchecked") QueryExecutor qe = baki.query("&" + XQLFileManager.encodeSqlReference(alias, sqlName)).args((Map<String, Object>) args);
+        // the entity mapper of baki is used only if the entity mapping is not customized by this handler.
+        boolean entityType = !customEntityMapping && genericType != null && !genericType.isAssignableFrom(DataRow.class) && isBindableObject(genericType);
         if (returnType == Stream.class) {
+            if (entityType) {
+                return qe.stream(genericType);
+            }
             return qe.stream().map(dataRowMapping(genericType));
         }
         if (returnType == List.class) {
+            if (entityType) {
+                return qe.entities(genericType);
+            }
             try (Stream<DataRow> s = qe.stream()) {
                 return s.map(dataRowMapping(genericType)).collect(Collectors.toList());
             }
         }
         if (returnType == Set.class) {
-            try (Stream<DataRow> s = qe.stream()) {
-                return s.map(dataRowMapping(genericType)).collect(Collectors.toSet());
+            try (Stream<?> s = entityType ? qe.stream(genericType) : qe.stream().map(dataRowMapping(genericType))) {
+                return s.collect(Collectors.toSet());
             }
         }
         if (returnType == String.class) {
@@ -7,6 +7,7 @@ public class ConnectionHolder {
     private Connection currentConnection;
     private boolean syncWithTransaction = false;
     private int refCount = 0;
+    private StatementCache statementCache;
 
     public ConnectionHolder(Connection connection) {
         this.currentConnection = connection;
@@ -17,6 +18,9 @@ public class ConnectionHolder {
     }
 
     public void setConnection(Connection connection) {
+        if (connection != currentConnection) {
+            closeStatementCache();
+        }
         currentConnection = connection;
     }
 
@@ -58,6 +62,24 @@ public class ConnectionHolder {
         refCount--;
     }
 
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    public void setStatementCache(StatementCache statementCache) {
+        this.statementCache = statementCache;
+    }
+
+    /**
+     * Close the statement cache of current connection.
+     */
+    public void closeStatementCache() {
+        if (statementCache != null) {
+            statementCache.close();
+            statementCache = null;
+        }
+    }
+
     /**
      * Clear connection reference count.
      */
@@ -162,6 +162,7 @@ public abstract class DataSourceUtils {
          */
         public void afterCompletion() {
             unbindResource(dataSource);
+            connectionHolder.closeStatementCache();
             if (connectionHolder.hasConnection()) {
                 releaseConnection(connectionHolder.getConnection(), null);
                 connectionHolder.setConnection(null);
@@ -0,0 +1,284 @@
+package com.github.chengyuxing.sql.datasource;
+
+import com.github.chengyuxing.common.NamedThreadLocal;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read/write splitting datasource, the connections are routed by:
+ * <ul>
+ *     <li>{@link #getReadConnection()}: read replica, e.g. the query out of transaction;</li>
+ *     <li>{@link #getConnection()}: primary, e.g. DML, procedure, DDL and everything in the non-read-only transaction,
+ *     the connection of the {@link com.github.chengyuxing.sql.transaction.Definition#setReadOnly(Boolean) read-only}
+ *     transaction is routed to the read replica.</li>
+ * </ul>
+ * e.g.
+ * <blockquote>
+ * <pre>BakiDao baki = new BakiDao(new ReadWriteRoutingDataSource(primary, Arrays.asList(replica1, replica2)));</pre>
+ * </blockquote>
+ * <p>If the replica is unavailable, the next replica is tried, and the primary is used finally.</p>
+ */
+public class ReadWriteRoutingDataSource implements DataSource {
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    private final ThreadLocal<Long> lastWrite = new NamedThreadLocal<>("Last write time");
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private LoadBalance loadBalance = LoadBalance.ROUND_ROBIN;
+    /**
+     * Read-your-writes window (nanoseconds), 0 means disabled.
+     */
+    private long readYourWritesWindow = 0;
+
+    /**
+     * Constructs a new ReadWriteRoutingDataSource.
+     *
+     * @param primary  primary datasource
+     * @param replicas read replica datasource list
+     */
+    public ReadWriteRoutingDataSource(@NotNull DataSource primary, @NotNull List<? extends DataSource> replicas) {
+        this.primary = primary;
+        List<Replica> list = new ArrayList<>(replicas.size());
+        for (DataSource replica : replicas) {
+            list.add(new Replica(replica));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Get the primary connection, the connection of the read-only transaction is routed to the read replica.
+     *
+     * @return connection
+     * @throws SQLException if datasource states error
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (AbstractTransactionSyncManager.isTransactionActive() && AbstractTransactionSyncManager.isCurrentTransactionReadOnly()) {
+            return getReadConnection();
+        }
+        markWrite();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        markWrite();
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Get the read replica connection by the {@link #setLoadBalance(LoadBalance) load balance},
+     * the primary connection is returned if no replicas or in the read-your-writes window.
+     *
+     * @return connection
+     * @throws SQLException if datasource states error
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (replicas.isEmpty() || isInReadYourWritesWindow()) {
+            return primary.getConnection();
+        }
+        int size = replicas.size();
+        int start = select();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                log.warn("Fetch read replica connection failed, try next.", e);
+            }
+        }
+        log.warn("All read replicas are unavailable, fallback to primary.");
+        return primary.getConnection();
+    }
+
+    private int select() {
+        int size = replicas.size();
+        int offset = (next.getAndIncrement() & Integer.MAX_VALUE) % size;
+        if (loadBalance == LoadBalance.ROUND_ROBIN) {
+            return offset;
+        }
+        // start from the rotating offset to spread the ties.
+        int selected = offset;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int index = (offset + i) % size;
+            int outstanding = replicas.get(index).outstanding.get();
+            if (outstanding < min) {
+                min = outstanding;
+                selected = index;
+            }
+        }
+        return selected;
+    }
+
+    private void markWrite() {
+        if (readYourWritesWindow > 0) {
+            lastWrite.set(System.nanoTime());
+        }
+    }
+
+    private boolean isInReadYourWritesWindow() {
+        if (readYourWritesWindow <= 0) {
+            return false;
+        }
+        Long last = lastWrite.get();
+        if (last == null) {
+            return false;
+        }
+        if (System.nanoTime() - last < readYourWritesWindow) {
+            return true;
+        }
+        lastWrite.remove();
+        return false;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     * Get the outstanding (not yet closed) connections of the read replica.
+     *
+     * @param index replica index
+     * @return outstanding connections
+     */
+    public int getOutstanding(int index) {
+        return replicas.get(index).outstanding.get();
+    }
+
+    public LoadBalance getLoadBalance() {
+        return loadBalance;
+    }
+
+    /**
+     * Set the load balance of the read replicas, default {@link LoadBalance#ROUND_ROBIN}.
+     *
+     * @param loadBalance load balance
+     */
+    public void setLoadBalance(LoadBalance loadBalance) {
+        if (loadBalance != null) {
+            this.loadBalance = loadBalance;
+        }
+    }
+
+    /**
+     * Set the read-your-writes window, the reads on the same thread after a write within
+     * the window are routed to the primary to avoid the replication lag.
+     *
+     * @param window window, zero means disabled
+     */
+    public void setReadYourWritesWindow(@NotNull Duration window) {
+        this.readYourWritesWindow = window.toNanos();
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return Duration.ofNanos(readYourWritesWindow);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    /**
+     * Load balance of the read replicas.
+     */
+    public enum LoadBalance {
+        /**
+         * Select the replicas in turn.
+         */
+        ROUND_ROBIN,
+        /**
+         * Select the replica which has the least outstanding connections.
+         */
+        LEAST_OUTSTANDING
+    }
+
+    /**
+     * Read replica which counts the outstanding connections.
+     */
+    private static final class Replica {
+        private final DataSource dataSource;
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        Connection getConnection() throws SQLException {
+            Connection connection = dataSource.getConnection();
+            outstanding.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean(false);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "close":
+                        if (closed.compareAndSet(false, true)) {
+                            outstanding.decrementAndGet();
+                        }
+                        break;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.chengyuxing.sql.datasource;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection scoped LRU prepared statement cache, bound to the {@link ConnectionHolder} lifetime.<br>
+ * The statement is checked out when executing and checked in after finished, checked in statement
+ * parameters, batch, query timeout and fetch size are reset, the least recently used statement is
+ * closed when the capacity is exceeded, and all statements are closed when the connection holder released.
+ */
+public class StatementCache {
+    private static final Logger log = LoggerFactory.getLogger(StatementCache.class);
+    private final int capacity;
+    private final Metrics metrics;
+    private final LinkedHashMap<Key, Entry> idle = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<PreparedStatement, Entry> checkedOut = new IdentityHashMap<>();
+    private boolean closed = false;
+
+    /**
+     * Constructs a new StatementCache.
+     *
+     * @param capacity max idle statements
+     * @param metrics  metrics to record
+     */
+    public StatementCache(int capacity, @NotNull Metrics metrics) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0.");
+        }
+        this.capacity = capacity;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Check out a cached statement or prepare a new statement.
+     *
+     * @param connection           connection
+     * @param sql                  prepared sql
+     * @param resultSetType        result set type
+     * @param resultSetConcurrency result set concurrency
+     * @return prepared statement
+     * @throws SQLException if connection states error
+     */
+    public synchronized PreparedStatement prepare(@NotNull Connection connection, @NotNull String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        Key key = new Key(sql, resultSetType, resultSetConcurrency);
+        Entry entry = closed ? null : idle.remove(key);
+        if (entry != null && !entry.statement.isClosed()) {
+            metrics.hits.increment();
+        } else {
+            metrics.misses.increment();
+            //noinspection SqlSourceToSinkFlow
+            PreparedStatement ps = connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            entry = new Entry(key, ps, ps.getFetchSize());
+        }
+        checkedOut.put(entry.statement, entry);
+        return entry.statement;
+    }
+
+    /**
+     * Check in the statement.
+     *
+     * @param statement statement
+     * @return true if the statement is checked out from this cache, otherwise the statement is untouched
+     */
+    public synchronized boolean release(@NotNull Statement statement) {
+        Entry entry = checkedOut.remove(statement);
+        if (entry == null) {
+            return false;
+        }
+        PreparedStatement ps = entry.statement;
+        try {
+            if (closed || ps.isClosed()) {
+                closeStatement(ps);
+                return true;
+            }
+            ps.clearParameters();
+            try {
+                ps.clearBatch();
+            } catch (SQLFeatureNotSupportedException ignore) {
+            }
+            ps.clearWarnings();
+            if (ps.getQueryTimeout() != 0) {
+                ps.setQueryTimeout(0);
+            }
+            if (ps.getFetchSize() != entry.fetchSize) {
+                ps.setFetchSize(entry.fetchSize);
+            }
+        } catch (SQLException e) {
+            log.debug("Reset statement error, discard it.", e);
+            closeStatement(ps);
+            return true;
+        }
+        Entry prev = idle.put(entry.key, entry);
+        if (prev != null && prev != entry) {
+            closeStatement(prev.statement);
+        }
+        Iterator<Entry> iterator = idle.values().iterator();
+        while (idle.size() > capacity && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            closeStatement(eldest.statement);
+            metrics.evictions.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Close all idle statements, checked out statements will be closed when they checked in.
+     */
+    public synchronized void close() {
+        closed = true;
+        for (Entry entry : idle.values()) {
+            closeStatement(entry.statement);
+        }
+        idle.clear();
+    }
+
+    public synchronized int size() {
+        return idle.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static void closeStatement(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("Close statement error.", e);
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final PreparedStatement statement;
+        /**
+         * Initial fetch size, restored when checked in.
+         */
+        private final int fetchSize;
+
+        Entry(Key key, PreparedStatement statement, int fetchSize) {
+            this.key = key;
+            this.statement = statement;
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    private static final class Key {
+        private final String sql;
+        private final int resultSetType;
+        private final int resultSetConcurrency;
+
+        Key(String sql, int resultSetType, int resultSetConcurrency) {
+            this.sql = sql;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return resultSetType == key.resultSetType && resultSetConcurrency == key.resultSetConcurrency && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = sql.hashCode();
+            result = 31 * result + resultSetType;
+            result = 31 * result + resultSetConcurrency;
+            return result;
+        }
+    }
+
+    /**
+     * Statement cache metrics, shared by all connection scoped caches.
+     */
+    public static class Metrics {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public long getHitCount() {
+            return hits.sum();
+        }
+
+        public long getMissCount() {
+            return misses.sum();
+        }
+
+        public long getEvictionCount() {
+            return evictions.sum();
+        }
+
+        /**
+         * Get the hit rate.
+         *
+         * @return hit rate between 0 and 1, 0 if no statement requested
+         */
+        public double getHitRate() {
+            long h = hits.sum();
+            long total = h + misses.sum();
+            return total == 0 ? 0 : (double) h / total;
+        }
+
+        @Override
+        public String toString() {
+            return "StatementCache.Metrics{" +
+                    "hits=" + getHitCount() +
+                    ", misses=" + getMissCount() +
+                    ", evictions=" + getEvictionCount() +
+                    ", hitRate=" + getHitRate() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.chengyuxing.sql.dsl;
+
+import com.github.chengyuxing.common.MethodReference;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * DSL upsert operator, insert the entity or update it when the key columns conflict,
+ * the dialect native statement ({@code on conflict}, {@code on duplicate key}, {@code merge}) is generated.
+ * <p>All insertable columns are inserted (include null values), and the updatable columns are updated when conflict.</p>
+ *
+ * @param <T> entity type
+ */
+public interface Upsert<T> {
+    /**
+     * Add the conflict key column, by default primary key.
+     *
+     * @param column unique column
+     * @return Upsert object
+     */
+    Upsert<T> by(@NotNull MethodReference<T> column);
+
+    /**
+     * Upsert.
+     *
+     * @param entity entity
+     * @return affected row count
+     */
+    int save(@NotNull T entity);
+
+    /**
+     * Batch upsert.
+     *
+     * @param entities entities
+     * @return affected row count
+     */
+    int save(@NotNull Iterable<T> entities);
+}
@@ -0,0 +1,176 @@
+package com.github.chengyuxing.sql.exceptions;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parallel partitioned execution failed, the failures are ordered by partition index,
+ * the 1st failure is the cause and the others are suppressed.
+ * <p>The unwritten rows are the rows of the {@link #getFailures() failed} and {@link #getSkipped() skipped}
+ * partitions, and the rows from {@link #getReadRows()} which never read from the input.</p>
+ */
+public class ParallelExecutionException extends DataAccessException {
+    private final int affectedRows;
+    private final List<PartitionFailure> failures;
+    private final List<Partition> skipped;
+    private final long readRows;
+
+    /**
+     * Constructs a new ParallelExecutionException.
+     *
+     * @param affectedRows affected rows of the succeeded partitions
+     * @param failures     failed partitions ordered by partition index, at least 1
+     * @param skipped      submitted but not executed partitions ordered by partition index
+     * @param readRows     rows read from the input
+     */
+    public ParallelExecutionException(int affectedRows,
+                                      @NotNull List<PartitionFailure> failures,
+                                      @NotNull List<Partition> skipped,
+                                      long readRows) {
+        super(message(affectedRows, failures, skipped, readRows), failures.get(0).getError());
+        this.affectedRows = affectedRows;
+        this.failures = Collections.unmodifiableList(failures);
+        this.skipped = Collections.unmodifiableList(skipped);
+        this.readRows = readRows;
+        for (int i = 1; i < failures.size(); i++) {
+            addSuppressed(failures.get(i).getError());
+        }
+    }
+
+    private static String message(int affectedRows, List<PartitionFailure> failures, List<Partition> skipped, long readRows) {
+        PartitionFailure first = failures.get(0);
+        String rows = first.getRows() == 0
+                ? "row " + first.getFirstRow()
+                : "rows " + first.getFirstRow() + " - " + (first.getFirstRow() + first.getRows() - 1);
+        return "Partition " + first.getPartition() + " (" + rows + ") failed, " +
+                failures.size() + " partition(s) failed, " + skipped.size() + " partition(s) skipped, " +
+                affectedRows + " row(s) affected by the succeeded partitions, " +
+                "1st unwritten row is " + firstUnwrittenRow(failures, skipped, readRows) + ".";
+    }
+
+    private static long firstUnwrittenRow(List<PartitionFailure> failures, List<Partition> skipped, long readRows) {
+        long row = readRows;
+        for (Partition failure : failures) {
+            row = Math.min(row, failure.getFirstRow());
+        }
+        for (Partition partition : skipped) {
+            row = Math.min(row, partition.getFirstRow());
+        }
+        return row;
+    }
+
+    /**
+     * Get the affected rows of the succeeded partitions.
+     *
+     * @return affected rows
+     */
+    public int getAffectedRows() {
+        return affectedRows;
+    }
+
+    public List<PartitionFailure> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Get the partitions which submitted but not executed because of the previous failure.
+     *
+     * @return skipped partitions
+     */
+    public List<Partition> getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Get the rows read from the input, the rows start from this index are never read.
+     *
+     * @return read rows
+     */
+    public long getReadRows() {
+        return readRows;
+    }
+
+    /**
+     * Get the input index of the 1st unwritten row, the rows before it are all written,
+     * the rows after it may be partially written by the succeeded partitions.
+     *
+     * @return 1st unwritten row index
+     */
+    public long getFirstUnwrittenRow() {
+        return firstUnwrittenRow(failures, skipped, readRows);
+    }
+
+    /**
+     * Partition of the input rows.
+     */
+    public static class Partition {
+        private final int partition;
+        private final long firstRow;
+        private final int rows;
+
+        public Partition(int partition, long firstRow, int rows) {
+            this.partition = partition;
+            this.firstRow = firstRow;
+            this.rows = rows;
+        }
+
+        /**
+         * Get the partition index, starts from 0.
+         *
+         * @return partition index
+         */
+        public int getPartition() {
+            return partition;
+        }
+
+        /**
+         * Get the input index of the 1st row in partition, starts from 0.
+         *
+         * @return 1st row index
+         */
+        public long getFirstRow() {
+            return firstRow;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        @Override
+        public String toString() {
+            return "Partition{" +
+                    "partition=" + partition +
+                    ", firstRow=" + firstRow +
+                    ", rows=" + rows +
+                    '}';
+        }
+    }
+
+    /**
+     * Failed partition.
+     */
+    public static final class PartitionFailure extends Partition {
+        private final Throwable error;
+
+        public PartitionFailure(int partition, long firstRow, int rows, @NotNull Throwable error) {
+            super(partition, firstRow, rows);
+            this.error = error;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "PartitionFailure{" +
+                    "partition=" + getPartition() +
+                    ", firstRow=" + getFirstRow() +
+                    ", rows=" + getRows() +
+                    ", error=" + error +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.chengyuxing.sql.plugins;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.sql.types.CompactRow;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous query executor, the query is executed on the async executor of
+ * {@link com.github.chengyuxing.sql.AsyncBaki AsyncBaki}, cancel the future cancels the running statement.
+ */
+public interface AsyncQueryExecutor {
+    /**
+     * Set the deadline of the query which starts from now, the future completed by
+     * {@link java.util.concurrent.TimeoutException TimeoutException} and the running statement is cancelled when expired.
+     *
+     * @param timeout timeout
+     * @return AsyncQueryExecutor
+     */
+    AsyncQueryExecutor deadline(@NotNull Duration timeout);
+
+    /**
+     * Collect result to rows.
+     *
+     * @return rows future
+     */
+    CompletableFuture<List<DataRow>> rows();
+
+    /**
+     * Collect result to maps.
+     *
+     * @return maps future
+     */
+    CompletableFuture<List<Map<String, Object>>> maps();
+
+    /**
+     * Collect result to compact rows.
+     *
+     * @return compact rows future
+     */
+    CompletableFuture<List<CompactRow>> compactRows();
+
+    /**
+     * Collect result to entities.
+     *
+     * @param entityClass entity class
+     * @param <T>         entity type
+     * @return entities future
+     */
+    <T> CompletableFuture<List<T>> entities(Class<T> entityClass);
+
+    /**
+     * Collect 1st optional row.
+     *
+     * @return 1st optional row future
+     */
+    CompletableFuture<Optional<DataRow>> findFirst();
+}
@@ -4,6 +4,7 @@ import com.github.chengyuxing.sql.dsl.Delete;
 import com.github.chengyuxing.sql.dsl.Insert;
 import com.github.chengyuxing.sql.dsl.Query;
 import com.github.chengyuxing.sql.dsl.Update;
+import com.github.chengyuxing.sql.dsl.Upsert;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -43,6 +44,13 @@ public interface EntityExecutor<T> {
      */
     Update<T> update();
 
+    /**
+     * Upsert.
+     *
+     * @return Upsert object
+     */
+    Upsert<T> upsert();
+
     /**
      * Delete.
      *
@@ -1,6 +1,7 @@
 package com.github.chengyuxing.sql.plugins;
 
 import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.sql.types.CompactRow;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Map;
@@ -14,6 +15,23 @@ public interface QueryCacheManager {
     @FunctionalInterface
     interface RawQueryProvider {
         @NotNull Stream<DataRow> query();
+
+        /**
+         * Query as compact rows which share the same column schema, it's recommended
+         * as the cached representation of large results, e.g.
+         * <blockquote>
+         * <pre>
+         * List&lt;CompactRow&gt; rows = provider.queryCompact().collect(Collectors.toList());
+         * cache.put(key, rows);
+         * ...
+         * return rows.stream().map(CompactRow::toDataRow);</pre>
+         * </blockquote>
+         *
+         * @return compact rows
+         */
+        default @NotNull Stream<CompactRow> queryCompact() {
+            return query().map(CompactRow.compactor());
+        }
     }
 
     /**
@@ -3,12 +3,16 @@ package com.github.chengyuxing.sql.plugins;
 import com.github.chengyuxing.common.DataRow;
 import com.github.chengyuxing.sql.Args;
 import com.github.chengyuxing.sql.page.IPageable;
+import com.github.chengyuxing.sql.types.CompactRow;
+import com.github.chengyuxing.sql.util.Flow;
+import com.github.chengyuxing.sql.util.RowPublisher;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import java.util.*;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -17,6 +21,8 @@ import java.util.stream.Stream;
 public abstract class QueryExecutor {
     protected final String sql;
     protected final Map<String, Object> args = new HashMap<>();
+    protected int fetchSize = 0;
+    protected boolean streamLobs = false;
 
     /**
      * Constructs a new Query with 1 sql.
@@ -66,6 +72,56 @@ public abstract class QueryExecutor {
         return this;
     }
 
+    /**
+     * Set the stream query fetch size, the result set is read by forward-only cursor with
+     * {@code fetchSize} rows per round trip instead of loading all rows into memory.
+     * <p>Priority: this &gt; XQL metadata ({@code -- @fetchSize 1000}) &gt; global fetch size.</p>
+     *
+     * @param fetchSize rows per round trip, 0 means use the default
+     * @return Query
+     * @see java.sql.Statement#setFetchSize(int)
+     */
+    public QueryExecutor fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Surface the BLOB/CLOB columns of {@link #stream()} as lazily opened {@link java.io.InputStream}/{@link java.io.Reader}
+     * instead of {@code byte[]}/{@link String}, the LOB streams of the previous row are closed when the next row read
+     * and the rest are closed when the stream closed, e.g.
+     * <blockquote>
+     * <pre>
+     * try (Stream&lt;DataRow&gt; s = baki.query("select id, content from test.files").streamLobs().stream()) {
+     *     s.forEach(d -&gt; LobStreams.transferTo(d.getAs("content"), Paths.get("/data", d.getString("id"))));
+     * }</pre>
+     * </blockquote>
+     * <p>The LOB columns of the query which taken over by the query cache are still read into memory.</p>
+     *
+     * @return Query
+     * @see com.github.chengyuxing.sql.util.LobStreams
+     */
+    public QueryExecutor streamLobs() {
+        this.streamLobs = true;
+        return this;
+    }
+
+    /**
+     * Convert to asynchronous query executor, e.g.
+     * <blockquote>
+     * <pre>baki.query("select * from test.user").args("id", 1).async().rows().thenAccept(...)</pre>
+     * </blockquote>
+     *
+     * <p>The default implementation is not supported, the executor which created by
+     * {@link com.github.chengyuxing.sql.BakiDao BakiDao} runs the query on its async executor.</p>
+     *
+     * @return AsyncQueryExecutor
+     * @throws UnsupportedOperationException if the executor is not bound to the async executor
+     */
+    public AsyncQueryExecutor async() {
+        throw new UnsupportedOperationException("Async query is not supported by " + getClass().getName() + ".");
+    }
+
     /**
      * Collect result to Stream.
      *
@@ -73,6 +129,57 @@ public abstract class QueryExecutor {
      */
     public abstract Stream<DataRow> stream();
 
+    /**
+     * Collect result to entity Stream, the result set row is mapped to entity directly without {@link DataRow}.
+     *
+     * @param entityClass entity class
+     * @param <T>         entity type
+     * @return Stream query result
+     */
+    public <T> Stream<T> stream(Class<T> entityClass) {
+        return stream().map(d -> d.toEntity(entityClass));
+    }
+
+    /**
+     * Collect result to backpressured publisher, the rows are read only on demand, the statement and
+     * connection are released when completed or cancelled, e.g.
+     * <blockquote>
+     * <pre>baki.query("select * from test.user").publisher().subscribe(subscriber)</pre>
+     * </blockquote>
+     * <p>The fetch size is adapted by the first requested count if not configured.</p>
+     *
+     * @return publisher
+     * @see com.github.chengyuxing.sql.util.RowPublisher
+     */
+    public Flow.Publisher<DataRow> publisher() {
+        return new RowPublisher<>(demand -> stream());
+    }
+
+    /**
+     * Collect result to backpressured entity publisher.
+     *
+     * @param entityClass entity class
+     * @param <T>         entity type
+     * @return publisher
+     * @see #publisher()
+     */
+    public <T> Flow.Publisher<T> publisher(Class<T> entityClass) {
+        return new RowPublisher<>(demand -> stream(entityClass));
+    }
+
+    /**
+     * Collect result to compact rows, all rows share the same column schema and only hold the
+     * values array, it's recommended for large results instead of {@link #rows()} or {@link #maps()}.
+     *
+     * @return compact rows
+     * @see CompactRow
+     */
+    public List<CompactRow> compactRows() {
+        try (Stream<DataRow> s = stream()) {
+            return s.map(CompactRow.compactor()).collect(Collectors.toList());
+        }
+    }
+
     /**
      * Collect result to maps.
      *
@@ -0,0 +1,22 @@
+package com.github.chengyuxing.sql.plugins;
+
+import com.github.chengyuxing.sql.types.Execution;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Retry policy of the failed execution.
+ */
+@FunctionalInterface
+public interface RetryPolicy {
+    /**
+     * Do handle the failed execution to decide retry or not.
+     *
+     * @param execution execution, statement type {@link com.github.chengyuxing.sql.annotation.SqlStatementType#unset unset}
+     *                  and sql {@code transaction} if the whole transaction failed
+     * @param error     error
+     * @param attempt   failed attempts, starts from 1
+     * @return backoff (milliseconds) before the next attempt, negative means not retry
+     */
+    long backoff(@NotNull Execution execution, @NotNull Throwable error, @Range(from = 1, to = Integer.MAX_VALUE) int attempt);
+}
@@ -125,6 +125,42 @@ public interface SimpleDMLExecutor {
          */
         <T> int update(@NotNull Iterable<T> args, @NotNull Function<T, ? extends Map<String, ?>> argMapper);
 
+        /**
+         * Execute upsert, insert the data or update it when the condition columns conflict, the dialect native
+         * statement is generated by args and the condition columns (must be unique or primary key), e.g.
+         * <p>Args: {@code {id:14, name:'cyx', address:'kunming'}}, by: {@code id}</p>
+         * Generate (PostgreSQL):
+         * <blockquote><pre>
+         * insert into user(id, name, address) values (:id, :name, :address)
+         * on conflict (id) do update set name = excluded.name, address = excluded.address
+         * </pre></blockquote>
+         *
+         * @param data data which contains the condition columns
+         * @return affected row count
+         * @see com.github.chengyuxing.sql.util.SqlGenerator#generateNamedParamUpsert(com.github.chengyuxing.sql.types.DatabaseInfo, String, java.util.Collection, java.util.Collection, java.util.Collection)
+         */
+        int upsert(@NotNull Map<String, ?> data);
+
+        /**
+         * Execute batch upsert, the statement is generated by 1st item.
+         *
+         * @param data data which contains the condition columns
+         * @return affected row count
+         * @see #upsert(Map)
+         */
+        int upsert(@NotNull Iterable<? extends Map<String, ?>> data);
+
+        /**
+         * Execute batch upsert.
+         *
+         * @param data      data
+         * @param argMapper arg mapping to Map function
+         * @param <T>       arg type
+         * @return affected row count
+         * @see #upsert(Map)
+         */
+        <T> int upsert(@NotNull Iterable<T> data, @NotNull Function<T, ? extends Map<String, ?>> argMapper);
+
         /**
          * Execute delete.
          *
@@ -21,6 +21,9 @@ public interface StatementValueHandler {
      *     <li>{@link DatabaseInfo#getName() getName()} get current database name;</li>
      *     <li>{@link DatabaseInfo#getVersion() getVersion()} get current database version.</li>
      * </ul>
+     * <p>The stream opened by the handler should be registered to the {@link com.github.chengyuxing.sql.util.BindingStreams#current()
+     * current binding streams} to be closed after the statement completed, the {@link java.nio.file.Path Path}
+     * and {@link java.io.File File} value handled by {@link JdbcUtils#setStatementValue(PreparedStatement, int, Object)} is registered.</p>
      *
      * @param ps    prepared statement object ({@link PreparedStatement} | {@link java.sql.CallableStatement CallableStatement})
      * @param index parameter index
@@ -0,0 +1,208 @@
+package com.github.chengyuxing.sql.support;
+
+import com.github.chengyuxing.common.NamedThreadLocal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Execution scope bound to the current thread, all statements executed in the scope are tracked,
+ * {@link #cancel() cancel} the scope invokes {@link Statement#cancel()} of the running statements
+ * and rejects the next statements, the scope with deadline is cancelled by the watchdog when expired.
+ * <p>The scope created inside another scope is nested, the deadline is the minimum of both and
+ * the statements are also cancelled by the outer scope.</p>
+ */
+public final class ExecutionScope {
+    private static final Logger log = LoggerFactory.getLogger(ExecutionScope.class);
+    private static final ThreadLocal<ExecutionScope> CURRENT = new NamedThreadLocal<>("Execution scope");
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "baki-execution-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Set<Statement> statements = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final ExecutionScope parent;
+    /**
+     * Deadline of {@link System#nanoTime()}, 0 means no deadline.
+     */
+    private final long deadline;
+    private volatile boolean cancelled = false;
+    private volatile boolean expired = false;
+
+    private ExecutionScope(ExecutionScope parent, long deadline) {
+        this.parent = parent;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Create a scope without deadline, nested in the current scope if exists.
+     *
+     * @return execution scope
+     */
+    public static ExecutionScope create() {
+        ExecutionScope parent = CURRENT.get();
+        return new ExecutionScope(parent, parent == null ? 0 : parent.deadline);
+    }
+
+    /**
+     * Create a scope with deadline which starts from now, nested in the current scope if exists.
+     *
+     * @param timeout timeout
+     * @return execution scope
+     */
+    public static ExecutionScope withDeadline(@NotNull Duration timeout) {
+        ExecutionScope parent = CURRENT.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        // 0 is reserved for no deadline.
+        if (deadline == 0) {
+            deadline = 1;
+        }
+        if (parent != null && parent.deadline != 0 && parent.deadline - deadline < 0) {
+            deadline = parent.deadline;
+        }
+        return new ExecutionScope(parent, deadline);
+    }
+
+    /**
+     * Get the scope of current thread.
+     *
+     * @return execution scope or null
+     */
+    public static @Nullable ExecutionScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Execute the supplier in this scope, the scope is bound to the current thread while executing.
+     *
+     * @param supplier supplier
+     * @param <T>      result type
+     * @return result
+     */
+    public <T> T call(@NotNull Supplier<T> supplier) {
+        ExecutionScope previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Schedule the watchdog to cancel this scope when the deadline expired.
+     *
+     * @param onExpired callback after cancelled
+     * @return scheduled watchdog which should be cancelled after the execution finished, or null if no deadline
+     */
+    public @Nullable ScheduledFuture<?> watch(@Nullable Runnable onExpired) {
+        if (deadline == 0) {
+            return null;
+        }
+        return WATCHDOG.schedule(() -> {
+            expired = true;
+            cancel();
+            if (onExpired != null) {
+                onExpired.run();
+            }
+        }, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Register the running statement.
+     *
+     * @param statement statement
+     * @throws SQLException if the scope has been cancelled or expired
+     */
+    public void register(@NotNull Statement statement) throws SQLException {
+        if (parent != null) {
+            parent.register(statement);
+        }
+        synchronized (statements) {
+            if (expired || remainingNanos() <= 0) {
+                expired = true;
+                cancelled = true;
+            }
+            if (cancelled) {
+                if (parent != null) {
+                    parent.unregister(statement);
+                }
+                if (expired) {
+                    throw new SQLTimeoutException("Execution deadline exceeded.");
+                }
+                throw new SQLException("Execution cancelled.");
+            }
+            statements.add(statement);
+        }
+    }
+
+    /**
+     * Unregister the statement after it finished.
+     *
+     * @param statement statement
+     */
+    public void unregister(@NotNull Statement statement) {
+        synchronized (statements) {
+            statements.remove(statement);
+        }
+        if (parent != null) {
+            parent.unregister(statement);
+        }
+    }
+
+    /**
+     * Cancel the scope, all running statements are cancelled.
+     */
+    public void cancel() {
+        synchronized (statements) {
+            cancelled = true;
+            for (Statement statement : statements) {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    log.debug("Cancel statement error.", e);
+                }
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled || parent != null && parent.isCancelled();
+    }
+
+    /**
+     * Check the scope is cancelled by the deadline.
+     *
+     * @return true if expired
+     */
+    public boolean isExpired() {
+        return expired || parent != null && parent.isExpired();
+    }
+
+    /**
+     * Get the remaining time before the deadline.
+     *
+     * @return remaining nanos, {@link Long#MAX_VALUE} if no deadline
+     */
+    public long remainingNanos() {
+        return deadline == 0 ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+}
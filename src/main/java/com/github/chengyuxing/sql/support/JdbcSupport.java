@@ -3,16 +3,24 @@ package com.github.chengyuxing.sql.support;
 import com.github.chengyuxing.common.DataRow;
 import com.github.chengyuxing.common.UncheckedCloseable;
 import com.github.chengyuxing.common.util.ValueUtils;
+import com.github.chengyuxing.sql.datasource.StatementCache;
 import com.github.chengyuxing.sql.exceptions.DataAccessException;
+import com.github.chengyuxing.sql.types.DatabaseInfo;
 import com.github.chengyuxing.sql.types.Param;
 import com.github.chengyuxing.sql.types.ParamMode;
+import com.github.chengyuxing.sql.util.ArgAccessor;
+import com.github.chengyuxing.sql.util.BindingStreams;
 import com.github.chengyuxing.sql.util.JdbcUtils;
+import com.github.chengyuxing.sql.util.MultiRowInsert;
+import com.github.chengyuxing.sql.util.RowDecoder;
+import com.github.chengyuxing.sql.util.RowMapper;
 import com.github.chengyuxing.sql.util.SqlGenerator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import javax.sql.DataSource;
+import java.io.UncheckedIOException;
 import java.sql.*;
 import java.util.*;
 import java.util.function.Consumer;
@@ -47,6 +55,15 @@ public abstract class JdbcSupport {
      */
     protected abstract @NotNull Connection getConnection();
 
+    /**
+     * Get connection of the query, e.g. from the read replica.
+     *
+     * @return connection
+     */
+    protected @NotNull Connection getQueryConnection() {
+        return getConnection();
+    }
+
     /**
      * Release connection when execute finished.
      *
@@ -76,6 +93,23 @@ public abstract class JdbcSupport {
                                                    @Range(from = 1, to = Integer.MAX_VALUE) int index,
                                                    @Nullable Object value) throws SQLException;
 
+    /**
+     * Handle prepared statement value with the database info which resolved once for the current statement.
+     *
+     * @param ps           PreparedStatement
+     * @param index        parameter index
+     * @param value        parameter value
+     * @param databaseInfo database info of the current statement or null
+     * @throws SQLException ex
+     * @see SqlGenerator.PreparedSqlMetaData#getDatabaseInfo()
+     */
+    protected void doHandleStatementValue(@NotNull PreparedStatement ps,
+                                          @Range(from = 1, to = Integer.MAX_VALUE) int index,
+                                          @Nullable Object value,
+                                          @Nullable DatabaseInfo databaseInfo) throws SQLException {
+        doHandleStatementValue(ps, index, value);
+    }
+
     /**
      * On statement created and do some configure before execute.
      *
@@ -86,6 +120,134 @@ public abstract class JdbcSupport {
      */
     protected abstract void onStatementInit(Statement statement, String sql, Map<String, ?> args) throws SQLException;
 
+    /**
+     * Initialize the statement and register it to the current {@link ExecutionScope execution scope},
+     * the query timeout is limited by the remaining time of the scope deadline.
+     *
+     * @param statement statement
+     * @param sql       sql
+     * @param args      args
+     * @return current execution scope or null
+     * @throws SQLException if the execution scope cancelled, expired or statement states error
+     */
+    private @Nullable ExecutionScope initStatement(Statement statement, String sql, Map<String, ?> args) throws SQLException {
+        ExecutionScope scope = ExecutionScope.current();
+        if (scope != null) {
+            scope.register(statement);
+        }
+        try {
+            // the cached statement may hold the timeout of the previous execution.
+            if (statement.getQueryTimeout() != 0) {
+                statement.setQueryTimeout(0);
+            }
+            onStatementInit(statement, sql, args);
+            if (scope != null) {
+                long remaining = scope.remainingNanos();
+                if (remaining != Long.MAX_VALUE) {
+                    if (remaining <= 0) {
+                        throw new SQLTimeoutException("Execution deadline exceeded.");
+                    }
+                    // round up to seconds (at least 1, 0 means no timeout), the watchdog cancels the statement
+                    // at millisecond granularity.
+                    long seconds = Math.max(1, (remaining + 999_999_999L) / 1_000_000_000L);
+                    int timeout = statement.getQueryTimeout();
+                    if (timeout == 0 || seconds < timeout) {
+                        statement.setQueryTimeout((int) Math.min(seconds, Integer.MAX_VALUE));
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (scope != null) {
+                scope.unregister(statement);
+            }
+            throw e;
+        }
+        return scope;
+    }
+
+    private static void unregisterStatement(Statement statement) {
+        ExecutionScope scope = ExecutionScope.current();
+        if (scope != null && statement != null) {
+            scope.unregister(statement);
+        }
+    }
+
+    /**
+     * Get the prepared statement cache of the connection.
+     *
+     * @param connection connection
+     * @return statement cache or null if statement cache disabled or the connection is not reusable
+     */
+    protected @Nullable StatementCache getStatementCache(Connection connection) {
+        return null;
+    }
+
+    /**
+     * Prepare statement, reuse the cached statement if {@link #getStatementCache(Connection) statement cache} available.
+     *
+     * @param connection connection
+     * @param sql        prepared sql
+     * @return prepared statement
+     * @throws SQLException if connection states error
+     */
+    protected PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        return prepareStatement(connection, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    /**
+     * Prepare statement with result set type and concurrency, reuse the cached statement
+     * if {@link #getStatementCache(Connection) statement cache} available.
+     *
+     * @param connection           connection
+     * @param sql                  prepared sql
+     * @param resultSetType        result set type
+     * @param resultSetConcurrency result set concurrency
+     * @return prepared statement
+     * @throws SQLException if connection states error
+     */
+    protected PreparedStatement prepareStatement(Connection connection, String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return prepareStatement(getStatementCache(connection), connection, sql, resultSetType, resultSetConcurrency);
+    }
+
+    private static PreparedStatement prepareStatement(StatementCache cache, Connection connection, String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        if (cache != null) {
+            return cache.prepare(connection, sql, resultSetType, resultSetConcurrency);
+        }
+        //noinspection SqlSourceToSinkFlow
+        return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+    }
+
+    /**
+     * Check in the statement to the statement cache or close it.
+     *
+     * @param connection connection
+     * @param statement  statement
+     */
+    protected void releaseStatement(Connection connection, Statement statement) {
+        if (statement == null) {
+            return;
+        }
+        releaseStatement(getStatementCache(connection), statement);
+    }
+
+    /**
+     * Check in the statement to the specified statement cache or close it, the statement cache
+     * should be captured when the statement prepared if it may be released on another thread,
+     * e.g. the stream query closed by another thread.
+     *
+     * @param cache     statement cache which the statement checked out from
+     * @param statement statement
+     */
+    protected void releaseStatement(@Nullable StatementCache cache, Statement statement) {
+        if (statement == null) {
+            return;
+        }
+        unregisterStatement(statement);
+        if (cache == null || !cache.release(statement)) {
+            JdbcUtils.closeStatement(statement);
+        }
+    }
+
     /**
      * Set prepared sql statement args.
      *
@@ -104,6 +266,65 @@ public abstract class JdbcSupport {
         }
     }
 
+    /**
+     * Set prepared sql statement args by precompiled arg accessors.
+     *
+     * @param ps   SQL statement object
+     * @param args args
+     * @param smd  prepared sql meta data
+     * @throws SQLException if connection states error
+     * @see SqlGenerator.PreparedSqlMetaData#getArgAccessors()
+     */
+    protected void setPreparedSqlArgs(PreparedStatement ps, Map<String, ?> args, SqlGenerator.PreparedSqlMetaData smd) throws SQLException {
+        setPreparedSqlArgs(ps, args, smd, null);
+    }
+
+    /**
+     * Set prepared sql statement args by precompiled arg accessors, {@link java.nio.file.Path Path} and
+     * {@link java.io.File File} args which opened as streams by the statement value handler are registered to the binding streams,
+     * the binding streams is {@link BindingStreams#current() current} while the statement value handler invoked.
+     *
+     * @param ps      SQL statement object
+     * @param args    args
+     * @param smd     prepared sql meta data
+     * @param streams binding streams which closed after the statement completed, null means not managed
+     * @throws SQLException if connection states error
+     * @see BindingStreams
+     */
+    protected void setPreparedSqlArgs(PreparedStatement ps, Map<String, ?> args, SqlGenerator.PreparedSqlMetaData smd, @Nullable BindingStreams streams) throws SQLException {
+        setPreparedSqlArgs(ps, args, smd, streams, 0);
+    }
+
+    /**
+     * Set prepared sql statement args by precompiled arg accessors from the parameter index offset,
+     * e.g. each row of the multi-row insert.
+     *
+     * @param ps          SQL statement object
+     * @param args        args
+     * @param smd         prepared sql meta data
+     * @param streams     binding streams which closed after the statement completed, null means not managed
+     * @param indexOffset parameter index offset
+     * @throws SQLException if connection states error
+     * @see MultiRowInsert
+     */
+    protected void setPreparedSqlArgs(PreparedStatement ps, Map<String, ?> args, SqlGenerator.PreparedSqlMetaData smd, @Nullable BindingStreams streams, int indexOffset) throws SQLException {
+        DatabaseInfo databaseInfo = smd.getDatabaseInfo();
+        List<ArgAccessor> accessors = smd.getArgAccessors();
+        BindingStreams previous = BindingStreams.setCurrent(streams);
+        try {
+            for (int i = 0, j = accessors.size(); i < j; i++) {
+                ArgAccessor accessor = accessors.get(i);
+                Object value = accessor.getValue(args);
+                List<Integer> indexes = accessor.getIndexes();
+                for (int k = 0, l = indexes.size(); k < l; k++) {
+                    doHandleStatementValue(ps, indexes.get(k) + indexOffset, value, databaseInfo);
+                }
+            }
+        } finally {
+            BindingStreams.setCurrent(previous);
+        }
+    }
+
     /**
      * Wraps a given throwable into a {@link DataAccessException} with an optional SQL statement.
      *
@@ -134,26 +355,118 @@ public abstract class JdbcSupport {
      * @throws DataAccessException SQL execute error
      */
     protected DataRow executeAny(@NotNull final String sql, Map<String, ?> args) {
+        return executeAny(sql, args, JdbcUtils::getResult);
+    }
+
+    /**
+     * Execute multi statements (e.g. SQL Server/MySQL batch) or procedure which returns multiple results in one round trip,
+     * all results are walked by {@link Statement#getMoreResults()}, e.g.
+     * <blockquote>
+     * <pre>select * from test.user; update test.user set age = 30 where id = 1; select count(*) from test.user;</pre>
+     * </blockquote>
+     * <p>Results:</p>
+     * <blockquote>
+     * <pre>[{result=[...], type=QUERY}, {result=1, type=DD(M)L}, {result=[...], type=QUERY}]</pre>
+     * </blockquote>
+     *
+     * @param sql  named parameter sql
+     * @param args args
+     * @return results in order, each result is same as {@link #executeAny(String, Map)}
+     * @throws DataAccessException SQL execute error
+     */
+    protected List<DataRow> executeAnyResults(@NotNull final String sql, Map<String, ?> args) {
+        return executeAny(sql, args, JdbcUtils::getResults);
+    }
+
+    private <T> T executeAny(String sql, Map<String, ?> args, ResultReader<T> reader) {
         SqlGenerator.PreparedSqlMetaData smd = prepareSql(sql, args);
+        BindingStreams streams = new BindingStreams();
         Connection connection = null;
         PreparedStatement ps = null;
         try {
             connection = getConnection();
-            //noinspection SqlSourceToSinkFlow
-            ps = connection.prepareStatement(smd.getPrepareSql());
-            onStatementInit(ps, sql, smd.getArgs());
-            setPreparedSqlArgs(ps, smd.getArgs(), smd.getArgNameIndexMapping());
+            ps = prepareStatement(connection, smd.getPrepareSql());
+            initStatement(ps, sql, smd.getArgs());
+            setPreparedSqlArgs(ps, smd.getArgs(), smd, streams);
             ps.execute();
             JdbcUtils.printSqlConsole(ps);
-            return JdbcUtils.getResult(ps, smd.getPrepareSql());
+            return reader.read(ps, smd.getPrepareSql());
         } catch (Exception e) {
+            // failed statement should not be reused.
+            JdbcUtils.closeStatement(ps);
             throw wrappedDataAccessException(smd.getPrepareSql(), e);
         } finally {
-            JdbcUtils.closeStatement(ps);
+            streams.close();
+            releaseStatement(connection, ps);
             releaseConnection(connection, getDataSource());
         }
     }
 
+    /**
+     * Lazily execute multi statements or procedure which returns multiple results, each result is read
+     * when the stream advanced, the connection is held until the stream closed.
+     *
+     * @param sql  named parameter sql
+     * @param args args
+     * @return Stream results in order, each result is same as {@link #executeAny(String, Map)}
+     * @throws DataAccessException SQL execute error
+     * @see #executeAnyResults(String, Map)
+     */
+    protected Stream<DataRow> executeAnyStream(@NotNull final String sql, Map<String, ?> args) {
+        SqlGenerator.PreparedSqlMetaData smd = prepareSql(sql, args);
+        UncheckedCloseable close = null;
+        PreparedStatement statement = null;
+        try {
+            Connection connection = getConnection();
+            close = UncheckedCloseable.wrap(() -> releaseConnection(connection, getDataSource()));
+            StatementCache cache = getStatementCache(connection);
+            PreparedStatement ps = prepareStatement(cache, connection, smd.getPrepareSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement = ps;
+            close = close.nest(() -> releaseStatement(cache, ps));
+            ExecutionScope scope = initStatement(ps, sql, smd.getArgs());
+            if (scope != null) {
+                close = close.nest(() -> scope.unregister(ps));
+            }
+            BindingStreams streams = new BindingStreams();
+            close = close.nest(streams);
+            setPreparedSqlArgs(ps, smd.getArgs(), smd, streams);
+            ps.execute();
+            JdbcUtils.printSqlConsole(ps);
+            return StreamSupport.stream(new Spliterators.AbstractSpliterator<DataRow>(Long.MAX_VALUE, Spliterator.ORDERED) {
+                private boolean first = true;
+
+                @Override
+                public boolean tryAdvance(Consumer<? super DataRow> action) {
+                    try {
+                        if (!first) {
+                            ps.getMoreResults();
+                        }
+                        first = false;
+                        DataRow result = JdbcUtils.getCurrentResult(ps, smd.getPrepareSql());
+                        if (result == null) {
+                            return false;
+                        }
+                        action.accept(result);
+                        return true;
+                    } catch (SQLException ex) {
+                        throw new IllegalStateException(smd.getPrepareSql(), ex);
+                    }
+                }
+            }, false).onClose(close);
+        } catch (Exception ex) {
+            // the failed statement is closed first, so it's discarded instead of checking in to the statement cache.
+            JdbcUtils.closeStatement(statement);
+            if (close != null) {
+                try {
+                    close.close();
+                } catch (Exception e) {
+                    ex.addSuppressed(e);
+                }
+            }
+            throw wrappedDataAccessException(smd.getPrepareSql(), ex);
+        }
+    }
+
     /**
      * Lazily execute query based on {@link Stream} support, real execute query when terminal
      * operation called, every Stream query holds a connection, in case connection pool dead
@@ -179,30 +492,92 @@ public abstract class JdbcSupport {
      * @throws DataAccessException SQL execute error
      */
     protected Stream<DataRow> executeQueryStream(@NotNull final String sql, Map<String, ?> args) {
+        return executeQueryStream(sql, args, 0);
+    }
+
+    /**
+     * Lazily execute query based on {@link Stream} support with fetch size, the result set is read by
+     * forward-only and read-only cursor with {@code fetchSize} rows per round trip,
+     * if the connection is not in transaction, auto-commit is disabled until the stream closed
+     * (e.g. PostgreSQL requires it to use cursor), otherwise the driver may load all rows into memory.
+     *
+     * @param sql       named parameter SQL, e.g. <code>select * from test.user where id = :id</code>
+     * @param args      args
+     * @param fetchSize rows per round trip, 0 means driver default
+     * @return Stream query result
+     * @throws DataAccessException SQL execute error
+     * @see #executeQueryStream(String, Map)
+     * @see Statement#setFetchSize(int)
+     */
+    protected Stream<DataRow> executeQueryStream(@NotNull final String sql, Map<String, ?> args, int fetchSize) {
+        return executeQueryStream(sql, args, fetchSize, (resultSet, executedSql) -> RowDecoder.of(resultSet, executedSql)::createDataRow);
+    }
+
+    /**
+     * Lazily execute query based on {@link Stream} support with fetch size and custom row mapper.
+     *
+     * @param sql           named parameter SQL, e.g. <code>select * from test.user where id = :id</code>
+     * @param args          args
+     * @param fetchSize     rows per round trip, 0 means driver default
+     * @param mapperFactory row mapper factory, called once when the result set ready,
+     *                      the row mapper is closed with the stream if it's {@link AutoCloseable}
+     * @param <T>           result type
+     * @return Stream query result
+     * @throws DataAccessException SQL execute error
+     * @see #executeQueryStream(String, Map, int)
+     */
+    protected <T> Stream<T> executeQueryStream(@NotNull final String sql, Map<String, ?> args, int fetchSize, @NotNull RowMapper.Factory<T> mapperFactory) {
         SqlGenerator.PreparedSqlMetaData smd = prepareSql(sql, args);
         UncheckedCloseable close = null;
+        PreparedStatement statement = null;
         try {
-            Connection connection = getConnection();
+            Connection connection = getQueryConnection();
             // if this query is not in transaction, it's connection managed by Stream
             // if transaction is active connection will not be close when read stream to the end in 'try-with-resource' block
             close = UncheckedCloseable.wrap(() -> releaseConnection(connection, getDataSource()));
-            //noinspection SqlSourceToSinkFlow
-            PreparedStatement ps = connection.prepareStatement(smd.getPrepareSql());
-            close = close.nest(ps);
-            onStatementInit(ps, sql, smd.getArgs());
-            setPreparedSqlArgs(ps, smd.getArgs(), smd.getArgNameIndexMapping());
+            if (fetchSize != 0 && connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                close = close.nest(() -> {
+                    try {
+                        // read only cursor, nothing to commit.
+                        connection.rollback();
+                    } finally {
+                        connection.setAutoCommit(true);
+                    }
+                });
+            }
+            // stream may be closed by other thread which has no transaction resource, capture the statement cache.
+            StatementCache cache = getStatementCache(connection);
+            PreparedStatement ps = prepareStatement(cache, connection, smd.getPrepareSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement = ps;
+            close = close.nest(() -> releaseStatement(cache, ps));
+            ExecutionScope scope = initStatement(ps, sql, smd.getArgs());
+            if (scope != null) {
+                // stream may be closed by other thread.
+                close = close.nest(() -> scope.unregister(ps));
+            }
+            BindingStreams streams = new BindingStreams();
+            close = close.nest(streams);
+            setPreparedSqlArgs(ps, smd.getArgs(), smd, streams);
+            if (fetchSize != 0) {
+                // adapt before executed, the first round trip is sized too.
+                ps.setFetchSize(fetchSize > 0 ? adaptFetchSize(smd.getPrepareSql(), ps, fetchSize) : fetchSize);
+            }
             ResultSet resultSet = ps.executeQuery();
             close = close.nest(resultSet);
-            return StreamSupport.stream(new Spliterators.AbstractSpliterator<DataRow>(Long.MAX_VALUE, Spliterator.ORDERED) {
-                final String[] names = JdbcUtils.createNames(resultSet, smd.getPrepareSql());
-
+            RowMapper<T> mapper = mapperFactory.create(resultSet, smd.getPrepareSql());
+            if (mapper instanceof AutoCloseable) {
+                // resources which opened by row mapper (e.g. LOB streams) are closed before result set.
+                close = close.nest((AutoCloseable) mapper);
+            }
+            return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
                 @Override
-                public boolean tryAdvance(Consumer<? super DataRow> action) {
+                public boolean tryAdvance(Consumer<? super T> action) {
                     try {
                         if (!resultSet.next()) {
                             return false;
                         }
-                        action.accept(JdbcUtils.createDataRow(names, resultSet));
+                        action.accept(mapper.mapRow(resultSet));
                         return true;
                     } catch (SQLException ex) {
                         throw new IllegalStateException(smd.getPrepareSql(), ex);
@@ -210,6 +585,8 @@ public abstract class JdbcSupport {
                 }
             }, false).onClose(close);
         } catch (Exception ex) {
+            // the failed statement is closed first, so it's discarded instead of checking in to the statement cache.
+            JdbcUtils.closeStatement(statement);
             if (close != null) {
                 try {
                     close.close();
@@ -221,6 +598,20 @@ public abstract class JdbcSupport {
         }
     }
 
+    /**
+     * Adapt the fetch size before query executed, e.g. by row width of the {@link PreparedStatement#getMetaData()
+     * result set metadata}, only invoked if the fetch size is set (greater than 0).
+     *
+     * @param sql       prepared sql of the statement
+     * @param ps        prepared statement which parameters have been set
+     * @param fetchSize requested fetch size
+     * @return new fetch size
+     * @throws SQLException if statement states error
+     */
+    protected int adaptFetchSize(String sql, PreparedStatement ps, int fetchSize) throws SQLException {
+        return fetchSize;
+    }
+
     /**
      * Batch executes not prepared sql ({@code ddl} or {@code dml}).
      *
@@ -235,7 +626,7 @@ public abstract class JdbcSupport {
         try {
             connection = getConnection();
             s = connection.createStatement();
-            onStatementInit(s, String.join(";", sqlList), null);
+            initStatement(s, String.join(";", sqlList), null);
             final Stream.Builder<int[]> result = Stream.builder();
             int i = 1;
             for (String sql : sqlList) {
@@ -254,6 +645,7 @@ public abstract class JdbcSupport {
         } catch (SQLException e) {
             throw wrappedDataAccessException(String.join(";\n", sqlList), e);
         } finally {
+            unregisterStatement(s);
             JdbcUtils.closeStatement(s);
             releaseConnection(connection, getDataSource());
         }
@@ -276,21 +668,32 @@ public abstract class JdbcSupport {
                                          @Range(from = 1, to = Integer.MAX_VALUE) int batchSize) {
         Map<String, ?> first = eachMapper.apply(args.iterator().next());
         SqlGenerator.PreparedSqlMetaData smd = prepareSql(sql, first);
+        return doExecuteBatchUpdate(sql, smd, first, args, eachMapper, batchSize);
+    }
+
+    private <T> int doExecuteBatchUpdate(String sql,
+                                         SqlGenerator.PreparedSqlMetaData smd,
+                                         Map<String, ?> first,
+                                         Iterable<T> args,
+                                         Function<T, ? extends Map<String, ?>> eachMapper,
+                                         int batchSize) {
+        BindingStreams streams = new BindingStreams();
         Connection connection = null;
         PreparedStatement ps = null;
         try {
             connection = getConnection();
-            //noinspection SqlSourceToSinkFlow
-            ps = connection.prepareStatement(smd.getPrepareSql());
-            onStatementInit(ps, sql, first);
+            ps = prepareStatement(connection, smd.getPrepareSql());
+            initStatement(ps, sql, first);
             final Stream.Builder<int[]> result = Stream.builder();
             int i = 1;
             for (T arg : args) {
-                setPreparedSqlArgs(ps, eachMapper.apply(arg), smd.getArgNameIndexMapping());
+                setPreparedSqlArgs(ps, eachMapper.apply(arg), smd, streams);
                 ps.addBatch();
                 if (i % batchSize == 0) {
                     result.add(ps.executeBatch());
                     ps.clearBatch();
+                    // streams of the executed rows are consumed.
+                    streams.close();
                 }
                 i++;
             }
@@ -298,9 +701,87 @@ public abstract class JdbcSupport {
             ps.clearBatch();
             return result.build().flatMapToInt(IntStream::of).sum();
         } catch (Exception e) {
+            // failed statement should not be reused.
+            JdbcUtils.closeStatement(ps);
             throw wrappedDataAccessException(smd.getPrepareSql(), e);
         } finally {
+            streams.close();
+            releaseStatement(connection, ps);
+            releaseConnection(connection, getDataSource());
+        }
+    }
+
+    /**
+     * Batch execute prepared insert sql by multi-row insert, the single values group insert is rewritten to
+     * {@code insert into t(a, b) values (?, ?), (?, ?), ...} of {@code batchSize} rows per statement,
+     * the rows is also limited by the max parameters of the database
+     * ({@link DatabaseInfo#getMaxInsertRows(int)}).
+     * <p>Fallback to {@link #executeBatchUpdate(String, Iterable, Function, int)} if the sql is not
+     * rewritable or the database not supports.</p>
+     *
+     * @param sql        named parameter insert sql
+     * @param args       args collection
+     * @param eachMapper each object mapping to Map function
+     * @param batchSize  max rows per statement
+     * @param <T>        arg type
+     * @return affected row count
+     * @throws DataAccessException execute sql error
+     * @see MultiRowInsert
+     */
+    protected <T> int executeBatchInsert(@NotNull final String sql,
+                                         @NotNull Iterable<T> args,
+                                         @NotNull Function<T, ? extends Map<String, ?>> eachMapper,
+                                         @Range(from = 1, to = Integer.MAX_VALUE) int batchSize) {
+        Map<String, ?> first = eachMapper.apply(args.iterator().next());
+        SqlGenerator.PreparedSqlMetaData smd = prepareSql(sql, first);
+        MultiRowInsert insert = MultiRowInsert.parse(smd.getPrepareSql());
+        DatabaseInfo databaseInfo = smd.getDatabaseInfo();
+        int rowsPerStatement = 0;
+        if (insert != null && databaseInfo != null) {
+            rowsPerStatement = Math.min(batchSize, databaseInfo.getMaxInsertRows(insert.getParameterCount()));
+        }
+        if (rowsPerStatement < 2) {
+            return doExecuteBatchUpdate(sql, smd, first, args, eachMapper, batchSize);
+        }
+        int parameterCount = insert.getParameterCount();
+        BindingStreams streams = new BindingStreams();
+        Connection connection = null;
+        PreparedStatement ps = null;
+        String chunkSql = null;
+        try {
+            connection = getConnection();
+            int count = 0;
+            List<Map<String, ?>> rows = new ArrayList<>(rowsPerStatement);
+            Iterator<T> iterator = args.iterator();
+            while (iterator.hasNext()) {
+                rows.add(eachMapper.apply(iterator.next()));
+                if (rows.size() < rowsPerStatement && iterator.hasNext()) {
+                    continue;
+                }
+                String mySql = insert.sql(rows.size());
+                if (!mySql.equals(chunkSql)) {
+                    // the last chunk rows are less than others.
+                    releaseStatement(connection, ps);
+                    ps = null;
+                    ps = prepareStatement(connection, mySql);
+                    initStatement(ps, sql, first);
+                    chunkSql = mySql;
+                }
+                for (int i = 0, j = rows.size(); i < j; i++) {
+                    setPreparedSqlArgs(ps, rows.get(i), smd, streams, i * parameterCount);
+                }
+                count += ps.executeUpdate();
+                streams.close();
+                rows.clear();
+            }
+            return count;
+        } catch (Exception e) {
+            // failed statement should not be reused.
             JdbcUtils.closeStatement(ps);
+            throw wrappedDataAccessException(chunkSql == null ? smd.getPrepareSql() : chunkSql, e);
+        } finally {
+            streams.close();
+            releaseStatement(connection, ps);
             releaseConnection(connection, getDataSource());
         }
     }
@@ -323,19 +804,22 @@ public abstract class JdbcSupport {
      */
     protected int executeUpdate(@NotNull final String sql, Map<String, ?> args) {
         SqlGenerator.PreparedSqlMetaData smd = prepareSql(sql, args);
+        BindingStreams streams = new BindingStreams();
         Connection connection = null;
         PreparedStatement ps = null;
         try {
             connection = getConnection();
-            //noinspection SqlSourceToSinkFlow
-            ps = connection.prepareStatement(smd.getPrepareSql());
-            onStatementInit(ps, sql, smd.getArgs());
-            setPreparedSqlArgs(ps, smd.getArgs(), smd.getArgNameIndexMapping());
+            ps = prepareStatement(connection, smd.getPrepareSql());
+            initStatement(ps, sql, smd.getArgs());
+            setPreparedSqlArgs(ps, smd.getArgs(), smd, streams);
             return ps.executeUpdate();
         } catch (Exception e) {
+            // failed statement should not be reused.
+            JdbcUtils.closeStatement(ps);
             throw wrappedDataAccessException(smd.getPrepareSql(), e);
         } finally {
-            JdbcUtils.closeStatement(ps);
+            streams.close();
+            releaseStatement(connection, ps);
             releaseConnection(connection, getDataSource());
         }
     }
@@ -364,13 +848,14 @@ public abstract class JdbcSupport {
      */
     protected DataRow executeCallStatement(@NotNull final String procedure, Map<String, Param> args) {
         SqlGenerator.PreparedSqlMetaData smd = prepareSql(procedure, args);
+        BindingStreams streams = new BindingStreams();
         Connection connection = null;
         CallableStatement cs = null;
         try {
             connection = getConnection();
             //noinspection SqlSourceToSinkFlow
             cs = connection.prepareCall(smd.getPrepareSql());
-            onStatementInit(cs, procedure, args);
+            initStatement(cs, procedure, args);
 
             List<String> outNames = new ArrayList<>();
             if (!args.isEmpty()) {
@@ -386,13 +871,18 @@ public abstract class JdbcSupport {
                     }
                 }
                 // in param next
-                for (Map.Entry<String, List<Integer>> e : smd.getArgNameIndexMapping().entrySet()) {
-                    Param param = args.get(e.getKey());
-                    if (param.getParamMode() == ParamMode.IN || param.getParamMode() == ParamMode.IN_OUT) {
-                        for (Integer i : e.getValue()) {
-                            doHandleStatementValue(cs, i, param.getValue());
+                BindingStreams previous = BindingStreams.setCurrent(streams);
+                try {
+                    for (Map.Entry<String, List<Integer>> e : smd.getArgNameIndexMapping().entrySet()) {
+                        Param param = args.get(e.getKey());
+                        if (param.getParamMode() == ParamMode.IN || param.getParamMode() == ParamMode.IN_OUT) {
+                            for (Integer i : e.getValue()) {
+                                doHandleStatementValue(cs, i, param.getValue(), smd.getDatabaseInfo());
+                            }
                         }
                     }
+                } finally {
+                    BindingStreams.setCurrent(previous);
                 }
             }
 
@@ -424,11 +914,18 @@ public abstract class JdbcSupport {
                 }
             }
             return DataRow.of(outNames.toArray(new String[0]), values);
-        } catch (SQLException e) {
+        } catch (SQLException | UncheckedIOException e) {
             throw wrappedDataAccessException(smd.getPrepareSql(), e);
         } finally {
+            streams.close();
+            unregisterStatement(cs);
             JdbcUtils.closeStatement(cs);
             releaseConnection(connection, getDataSource());
         }
     }
+
+    @FunctionalInterface
+    private interface ResultReader<T> {
+        T read(PreparedStatement ps, String executedSql) throws SQLException;
+    }
 }
@@ -0,0 +1,185 @@
+package com.github.chengyuxing.sql.support;
+
+import com.github.chengyuxing.sql.annotation.SqlStatementType;
+import com.github.chengyuxing.sql.plugins.RetryPolicy;
+import com.github.chengyuxing.sql.types.Execution;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.net.SocketException;
+import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy of the transient failures with jittered exponential backoff:
+ * <ul>
+ *     <li>transaction rollback: serialization failure ({@code 40001}), deadlock ({@code 40P01}, {@code ORA-00060},
+ *     MySQL {@code 1213}/{@code 1205}), {@code ORA-08177}, {@code SQLITE_BUSY}/{@code SQLITE_LOCKED},
+ *     the statement or transaction has been rolled back so it's safe to retry;</li>
+ *     <li>connection failure: SQLState class {@code 08}, connection reset, only the query is retried
+ *     because the DML may have been committed.</li>
+ * </ul>
+ * <p>The backoff of the attempt {@code n} is random between 0 and {@code min(maxDelay, baseDelay * 2^(n-1))}.</p>
+ */
+public class TransientRetryPolicy implements RetryPolicy {
+    private final int maxRetries;
+    private final long baseDelay;
+    private final long maxDelay;
+    private double retryBudget = 0;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Constructs a new TransientRetryPolicy with max 3 retries, base delay 50ms and max delay 2s.
+     */
+    public TransientRetryPolicy() {
+        this(3, Duration.ofMillis(50), Duration.ofSeconds(2));
+    }
+
+    /**
+     * Constructs a new TransientRetryPolicy.
+     *
+     * @param maxRetries max retries of each execution
+     * @param baseDelay  backoff base delay
+     * @param maxDelay   backoff max delay
+     */
+    public TransientRetryPolicy(@Range(from = 0, to = Integer.MAX_VALUE) int maxRetries, @NotNull Duration baseDelay, @NotNull Duration maxDelay) {
+        this.maxRetries = maxRetries;
+        this.baseDelay = Math.max(1, baseDelay.toMillis());
+        this.maxDelay = Math.max(this.baseDelay, maxDelay.toMillis());
+    }
+
+    @Override
+    public long backoff(@NotNull Execution execution, @NotNull Throwable error, int attempt) {
+        if (attempt > maxRetries || !isRetryable(execution, error) || !acquireBudget()) {
+            return -1;
+        }
+        long cap = attempt > 31 ? maxDelay : Math.min(maxDelay, baseDelay << (attempt - 1));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Check the failed execution is retryable.
+     *
+     * @param execution execution
+     * @param error     error
+     * @return true if retryable
+     */
+    protected boolean isRetryable(@NotNull Execution execution, @NotNull Throwable error) {
+        if (isTransactionRollback(error)) {
+            return true;
+        }
+        return execution.getType() == SqlStatementType.query && isConnectionFailure(error);
+    }
+
+    private synchronized boolean acquireBudget() {
+        if (retryBudget <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(Math.max(1, retryBudget), tokens + (now - lastRefill) / 1e9 * retryBudget);
+        lastRefill = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Check the error is caused by transaction rollback, e.g. serialization failure or deadlock.
+     *
+     * @param error error
+     * @return true if transaction rollback
+     */
+    public static boolean isTransactionRollback(@NotNull Throwable error) {
+        for (SQLException e : sqlExceptions(error)) {
+            if (e instanceof SQLTimeoutException) {
+                continue;
+            }
+            if (e instanceof SQLTransactionRollbackException) {
+                return true;
+            }
+            String state = e.getSQLState();
+            if ("40001".equals(state) || "40P01".equals(state)) {
+                return true;
+            }
+            int code = e.getErrorCode();
+            if ((code == 1213 || code == 1205) && ("HY000".equals(state) || "41000".equals(state))) {
+                return true;
+            }
+            String message = e.getMessage();
+            if (message != null) {
+                if (message.startsWith("ORA-00060") || message.startsWith("ORA-08177") ||
+                        message.startsWith("[SQLITE_BUSY]") || message.startsWith("[SQLITE_LOCKED]")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check the error is caused by connection failure, e.g. connection reset.
+     *
+     * @param error error
+     * @return true if connection failure
+     */
+    public static boolean isConnectionFailure(@NotNull Throwable error) {
+        for (SQLException e : sqlExceptions(error)) {
+            if (e instanceof SQLTransientConnectionException || e instanceof SQLRecoverableException) {
+                return true;
+            }
+            String state = e.getSQLState();
+            if (state != null && state.startsWith("08")) {
+                return true;
+            }
+        }
+        Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable t = error; t != null && visited.add(t); t = t.getCause()) {
+            if (t instanceof SocketException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<SQLException> sqlExceptions(Throwable error) {
+        List<SQLException> list = new ArrayList<>();
+        Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Throwable t = error; t != null && visited.add(t); t = t.getCause()) {
+            if (t instanceof SQLException) {
+                list.add((SQLException) t);
+                for (SQLException next = ((SQLException) t).getNextException(); next != null && visited.add(next); next = next.getNextException()) {
+                    list.add(next);
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Set the retry budget to avoid retry storm, the budget is refilled continuously.
+     *
+     * @param retriesPerSecond max retries per second of all executions, 0 means unlimited
+     */
+    public synchronized void setRetryBudget(double retriesPerSecond) {
+        this.retryBudget = retriesPerSecond;
+        this.tokens = Math.max(1, retriesPerSecond);
+        this.lastRefill = System.nanoTime();
+    }
+
+    public double getRetryBudget() {
+        return retryBudget;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.chengyuxing.sql.types;
+
+/**
+ * Commit policy of the parallel partitioned execution.
+ */
+public enum CommitPolicy {
+    /**
+     * Each statement is auto committed by the connection.
+     */
+    AUTO_COMMIT,
+    /**
+     * Each partition is executed in its own transaction, failed partition is rolled back.
+     */
+    PER_PARTITION
+}
@@ -0,0 +1,317 @@
+package com.github.chengyuxing.sql.types;
+
+import com.github.chengyuxing.common.DataRow;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Compact row, the column names are held by the {@link Schema} which shared by all rows of the same
+ * result set, the row itself only holds the values array, it's much smaller than {@link DataRow}
+ * for large results.
+ * <p>It's also a {@link Map}, lookup by column name is based on the schema index, the entries are
+ * viewed from the values array lazily, add or remove the column makes the row detached
+ * from the schema and copied to a normal map.</p>
+ */
+public final class CompactRow extends AbstractMap<String, Object> {
+    private final Schema schema;
+    private final Object[] values;
+    /**
+     * Detached map if the columns changed.
+     */
+    private Map<String, Object> detached;
+    private Set<Entry<String, Object>> entrySet;
+
+    /**
+     * Constructs a new CompactRow.
+     *
+     * @param schema shared schema
+     * @param values values, length must be equal to the schema size
+     */
+    public CompactRow(@NotNull Schema schema, @NotNull Object[] values) {
+        if (values.length != schema.size()) {
+            throw new IllegalArgumentException("Values length " + values.length + " not match the schema size " + schema.size() + ".");
+        }
+        this.schema = schema;
+        this.values = values;
+    }
+
+    /**
+     * Create a compact row from map, the schema is reused if the map keys are same as it.
+     *
+     * @param row    map
+     * @param schema schema to reuse or null
+     * @return compact row
+     */
+    public static CompactRow of(@NotNull Map<String, ?> row, @Nullable Schema schema) {
+        if (row instanceof CompactRow && ((CompactRow) row).detached == null) {
+            CompactRow compactRow = (CompactRow) row;
+            if (schema == null || compactRow.schema == schema) {
+                return compactRow;
+            }
+        }
+        Schema mySchema = schema != null && schema.matches(row.keySet()) ? schema : Schema.of(row.keySet().toArray(new String[0]));
+        Object[] values = new Object[mySchema.size()];
+        int i = 0;
+        for (Object value : row.values()) {
+            values[i++] = value;
+        }
+        return new CompactRow(mySchema, values);
+    }
+
+    /**
+     * Returns a function which converts maps to compact rows, consecutive maps with same keys
+     * share the same schema, e.g.
+     * <blockquote>
+     * <pre>stream.map(CompactRow.compactor()).collect(Collectors.toList())</pre>
+     * </blockquote>
+     * <p>The function is stateful and not thread-safe, don't use it in parallel stream.</p>
+     *
+     * @return convert function
+     */
+    public static Function<Map<String, ?>, CompactRow> compactor() {
+        return new Function<Map<String, ?>, CompactRow>() {
+            private Schema schema;
+
+            @Override
+            public CompactRow apply(Map<String, ?> row) {
+                CompactRow compactRow = CompactRow.of(row, schema);
+                schema = compactRow.getSchema();
+                return compactRow;
+            }
+        };
+    }
+
+    public @NotNull Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Get value by column index.
+     *
+     * @param index column index
+     * @return value
+     */
+    public Object get(@Range(from = 0, to = Integer.MAX_VALUE) int index) {
+        if (detached != null) {
+            throw new IllegalStateException("Columns of the row have been changed, get by name instead.");
+        }
+        return values[index];
+    }
+
+    /**
+     * Convert to DataRow.
+     *
+     * @return DataRow
+     */
+    public DataRow toDataRow() {
+        DataRow row = new DataRow(size());
+        row.putAll(this);
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return detached != null ? detached.size() : values.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return detached != null ? detached.containsKey(key) : schema.indexOf(key) != -1;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (detached != null) {
+            return detached.get(key);
+        }
+        int i = schema.indexOf(key);
+        return i == -1 ? null : values[i];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (detached == null) {
+            int i = schema.indexOf(key);
+            if (i != -1) {
+                Object old = values[i];
+                values[i] = value;
+                return old;
+            }
+            detach();
+        }
+        return detached.put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        if (detached == null) {
+            detach();
+        }
+        return detached.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (detached == null) {
+            detach();
+        }
+        detached.clear();
+    }
+
+    private void detach() {
+        Map<String, Object> map = new LinkedHashMap<>(values.length * 4 / 3 + 1);
+        for (int i = 0; i < values.length; i++) {
+            map.put(schema.names[i], values[i]);
+        }
+        detached = map;
+        entrySet = null;
+    }
+
+    @Override
+    public @NotNull Set<Entry<String, Object>> entrySet() {
+        if (detached != null) {
+            return detached.entrySet();
+        }
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public @NotNull Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        int i = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return detached == null && i < values.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final int index = i++;
+                            return new Entry<String, Object>() {
+                                @Override
+                                public String getKey() {
+                                    return schema.names[index];
+                                }
+
+                                @Override
+                                public Object getValue() {
+                                    return values[index];
+                                }
+
+                                @Override
+                                public Object setValue(Object value) {
+                                    Object old = values[index];
+                                    values[index] = value;
+                                    return old;
+                                }
+
+                                @Override
+                                public boolean equals(Object o) {
+                                    if (!(o instanceof Entry)) return false;
+                                    Entry<?, ?> e = (Entry<?, ?>) o;
+                                    return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+                                }
+
+                                @Override
+                                public int hashCode() {
+                                    return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+                                }
+
+                                @Override
+                                public String toString() {
+                                    return getKey() + "=" + getValue();
+                                }
+                            };
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return values.length;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Shared column names and index.
+     */
+    public static final class Schema {
+        private final String[] names;
+        private final Map<String, Integer> index;
+
+        private Schema(String[] names) {
+            this.names = names;
+            this.index = new HashMap<>(names.length * 4 / 3 + 1);
+            for (int i = 0; i < names.length; i++) {
+                if (index.putIfAbsent(names[i], i) != null) {
+                    throw new IllegalArgumentException("Duplicate column name: " + names[i]);
+                }
+            }
+        }
+
+        /**
+         * Create a schema.
+         *
+         * @param names column names
+         * @return schema
+         */
+        public static Schema of(@NotNull String... names) {
+            return new Schema(names.clone());
+        }
+
+        /**
+         * Get index of the column name.
+         *
+         * @param name column name
+         * @return index or -1 if not exists
+         */
+        public int indexOf(Object name) {
+            Integer i = index.get(name);
+            return i == null ? -1 : i;
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        /**
+         * Get column names.
+         *
+         * @return column names copy
+         */
+        public String[] getNames() {
+            return names.clone();
+        }
+
+        boolean matches(Collection<String> keys) {
+            if (keys.size() != names.length) {
+                return false;
+            }
+            int i = 0;
+            for (String key : keys) {
+                if (!names[i++].equals(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(names);
+        }
+    }
+}
@@ -53,4 +53,64 @@ public final class DatabaseInfo {
     public String getDriver() {
         return driver;
     }
+
+    /**
+     * Get the max bind parameters of one statement.
+     *
+     * @return max parameters, 0 if unknown
+     */
+    public int getMaxParameters() {
+        switch (name) {
+            case "postgresql":
+            case "kingbasees":
+            case "db2 for unix/windows":
+                return 32767;
+            case "mysql":
+            case "mariadb":
+                return 65535;
+            case "sqlite":
+                // SQLITE_MAX_VARIABLE_NUMBER defaults to 32766 since 3.32.0.
+                return compareVersion(3, 32) >= 0 ? 32766 : 999;
+            case "microsoft sql server":
+                return 2100;
+            case "h2":
+            case "hsql database engine":
+                return 65535;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Get the max rows of multi-row insert ({@code insert into t(a, b) values (?, ?), (?, ?), ...}).
+     *
+     * @param parametersPerRow parameter count of each row
+     * @return max rows, 0 if multi-row insert not supported or unknown
+     */
+    public int getMaxInsertRows(int parametersPerRow) {
+        int maxParameters = getMaxParameters();
+        if (maxParameters == 0 || parametersPerRow <= 0) {
+            return 0;
+        }
+        int rows = maxParameters / parametersPerRow;
+        if (name.equals("microsoft sql server")) {
+            // table value constructor limits 1000 rows.
+            rows = Math.min(rows, 1000);
+        }
+        return rows;
+    }
+
+    private int compareVersion(int major, int minor) {
+        if (version == null) {
+            return -1;
+        }
+        String[] parts = version.trim().split("[.\\s-]");
+        try {
+            int myMajor = Integer.parseInt(parts[0]);
+            int myMinor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            return myMajor != major ? Integer.compare(myMajor, major) : Integer.compare(myMinor, minor);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 }
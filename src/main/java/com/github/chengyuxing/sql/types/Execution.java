@@ -13,6 +13,7 @@ public class Execution {
     private final String sql;
     private final Object args;
     private final Map<String, Object> status = new HashMap<>();
+    private int retries = 0;
 
     public Execution(SqlStatementType type, String sql, Object args) {
         this.type = type;
@@ -32,6 +33,20 @@ public class Execution {
         return args;
     }
 
+    /**
+     * Get the retry count of the execution.
+     *
+     * @return retries, 0 if not retried
+     * @see com.github.chengyuxing.sql.plugins.RetryPolicy
+     */
+    public int getRetries() {
+        return retries;
+    }
+
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
     public void setState(String key, Object value) {
         status.put(key, value);
     }
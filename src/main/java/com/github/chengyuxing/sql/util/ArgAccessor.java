@@ -0,0 +1,234 @@
+package com.github.chengyuxing.sql.util;
+
+import com.github.chengyuxing.common.util.ValueUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precompiled named parameter accessor, the parameter name path e.g. {@code user.addresses[0].city}
+ * is split once, nested maps and lists are accessed directly without parsing the name again,
+ * java bean properties are read by the getter which resolved once per (bean class, property),
+ * other objects fallback to {@link ValueUtils#getDeepValue(Object, String)}.
+ */
+public final class ArgAccessor {
+    public static final int DEFAULT_GETTER_CACHE_SIZE = 512;
+    private static final BoundedCache<List<Object>, MethodHandle> GETTERS = new BoundedCache<>(DEFAULT_GETTER_CACHE_SIZE);
+    /**
+     * The bean class has no accessible getter of the property.
+     */
+    private static final MethodHandle NO_GETTER = MethodHandles.constant(Object.class, null);
+    private final String name;
+    private final List<Integer> indexes;
+    /**
+     * Path segments, {@link String} is map key and {@link Integer} is list index, null if the name is not a simple path.
+     */
+    private final Object[] segments;
+    /**
+     * Remaining path of each segment.
+     */
+    private final String[] paths;
+    /**
+     * Getter of the last bean class read by each segment.
+     */
+    private final Getter[] getters;
+
+    /**
+     * Constructs a new ArgAccessor.
+     *
+     * @param name    named parameter name
+     * @param indexes prepared sql parameter indexes
+     */
+    public ArgAccessor(@NotNull String name, @NotNull List<Integer> indexes) {
+        this.name = name;
+        this.indexes = Collections.unmodifiableList(indexes);
+        List<Object> segs = new ArrayList<>();
+        List<String> ps = new ArrayList<>();
+        if (parse(name, segs, ps)) {
+            this.segments = segs.toArray();
+            this.paths = ps.toArray(new String[0]);
+            this.getters = new Getter[segments.length];
+        } else {
+            this.segments = null;
+            this.paths = null;
+            this.getters = null;
+        }
+    }
+
+    private static boolean parse(String name, List<Object> segments, List<String> paths) {
+        int i = 0;
+        int length = name.length();
+        while (i < length) {
+            char c = name.charAt(i);
+            if (c == '[') {
+                int end = name.indexOf(']', i);
+                if (end == -1 || end == i + 1) {
+                    return false;
+                }
+                int index = 0;
+                for (int j = i + 1; j < end; j++) {
+                    char d = name.charAt(j);
+                    if (d < '0' || d > '9' || index > 100_000_000) {
+                        return false;
+                    }
+                    index = index * 10 + (d - '0');
+                }
+                paths.add(name.substring(i));
+                segments.add(index);
+                i = end + 1;
+                if (i < length && name.charAt(i) == '.') {
+                    i++;
+                    if (i == length) {
+                        return false;
+                    }
+                }
+                continue;
+            }
+            int end = i;
+            while (end < length && name.charAt(end) != '.' && name.charAt(end) != '[') {
+                end++;
+            }
+            if (end == i) {
+                return false;
+            }
+            paths.add(name.substring(i));
+            segments.add(name.substring(i, end));
+            i = end;
+            if (i < length && name.charAt(i) == '.') {
+                i++;
+                if (i == length) {
+                    return false;
+                }
+            }
+        }
+        return !segments.isEmpty();
+    }
+
+    /**
+     * Get the named parameter value from args.
+     *
+     * @param args args
+     * @return value
+     */
+    public Object getValue(Map<String, ?> args) {
+        if (segments == null || args == null) {
+            return ValueUtils.getDeepValue(args, name);
+        }
+        Object current = args;
+        int last = segments.length - 1;
+        for (int i = 0; i <= last; i++) {
+            Object segment = segments[i];
+            if (segment instanceof String) {
+                if (!(current instanceof Map)) {
+                    MethodHandle getter = getter(i, current.getClass());
+                    if (getter == NO_GETTER) {
+                        return ValueUtils.getDeepValue(args, name);
+                    }
+                    current = invoke(getter, current);
+                    if (current == null) {
+                        return null;
+                    }
+                    continue;
+                }
+                Map<?, ?> map = (Map<?, ?>) current;
+                // key contains path characters e.g. {"a.b": 1}
+                if (i < last && map.containsKey(paths[i])) {
+                    return ValueUtils.getDeepValue(args, name);
+                }
+                current = map.get(segment);
+            } else {
+                int index = (Integer) segment;
+                if (!(current instanceof List) || index >= ((List<?>) current).size()) {
+                    return ValueUtils.getDeepValue(args, name);
+                }
+                current = ((List<?>) current).get(index);
+            }
+            if (current == null) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private MethodHandle getter(int segment, Class<?> clazz) {
+        Getter getter = getters[segment];
+        if (getter == null || getter.clazz != clazz) {
+            String property = (String) segments[segment];
+            getter = new Getter(clazz, GETTERS.get(Arrays.asList(clazz, property), k -> findGetter(clazz, property)));
+            getters[segment] = getter;
+        }
+        return getter.handle;
+    }
+
+    private static MethodHandle findGetter(Class<?> clazz, String property) {
+        String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (String prefix : new String[]{"get", "is"}) {
+            try {
+                Method method = clazz.getMethod(prefix + suffix);
+                if (method.getReturnType() == void.class || (prefix.equals("is") && method.getReturnType() != boolean.class)) {
+                    continue;
+                }
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException | RuntimeException ignored) {
+            }
+        }
+        return NO_GETTER;
+    }
+
+    private static Object invoke(MethodHandle getter, Object bean) {
+        try {
+            return getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Read property of " + bean.getClass().getName() + " error.", e);
+        }
+    }
+
+    /**
+     * Get the bean getter cache shared by all accessors.
+     *
+     * @return getter cache
+     */
+    public static BoundedCache<List<Object>, MethodHandle> getGetterCache() {
+        return GETTERS;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get prepared sql parameter indexes of the named parameter.
+     *
+     * @return parameter indexes
+     */
+    public @Unmodifiable List<Integer> getIndexes() {
+        return indexes;
+    }
+
+    @Override
+    public String toString() {
+        return name + indexes;
+    }
+
+    private static final class Getter {
+        private final Class<?> clazz;
+        private final MethodHandle handle;
+
+        Getter(Class<?> clazz, MethodHandle handle) {
+            this.clazz = clazz;
+            this.handle = handle;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.chengyuxing.sql.util;
+
+import com.github.chengyuxing.common.NamedThreadLocal;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams opened when binding the statement parameters, {@link Path} and {@link File} parameters are opened
+ * as {@link SizedInputStream} by the {@link JdbcUtils#setStatementValue(java.sql.PreparedStatement, int, Object, BindingStreams)
+ * default statement value handler}, all opened streams are closed when the statement (or each batch) completed.
+ */
+public final class BindingStreams implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BindingStreams.class);
+    private static final ThreadLocal<BindingStreams> CURRENT = new NamedThreadLocal<>("Current binding streams");
+    private final List<Closeable> opened = new ArrayList<>();
+
+    /**
+     * Get the binding streams of the statement which parameters are being set on the current thread,
+     * the custom {@link com.github.chengyuxing.sql.plugins.StatementValueHandler StatementValueHandler}
+     * registers the streams which opened by itself to be closed after the statement completed.
+     *
+     * @return binding streams or null if not in parameters binding
+     */
+    public static @Nullable BindingStreams current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Set the binding streams of the statement which parameters are being set on the current thread.
+     *
+     * @param streams binding streams, null means remove
+     * @return previous binding streams
+     */
+    public static @Nullable BindingStreams setCurrent(@Nullable BindingStreams streams) {
+        BindingStreams previous = CURRENT.get();
+        if (streams == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(streams);
+        }
+        return previous;
+    }
+
+    /**
+     * Open the parameter value as stream if it's a file.
+     *
+     * @param value parameter value
+     * @return opened stream or the value itself
+     */
+    public Object bind(Object value) {
+        if (value instanceof Path) {
+            return register(SizedInputStream.open((Path) value));
+        }
+        if (value instanceof File) {
+            return register(SizedInputStream.open(((File) value).toPath()));
+        }
+        return value;
+    }
+
+    /**
+     * Register the stream to be closed when the statement completed.
+     *
+     * @param closeable stream
+     * @param <T>       stream type
+     * @return stream
+     */
+    public <T extends Closeable> T register(T closeable) {
+        opened.add(closeable);
+        return closeable;
+    }
+
+    public int size() {
+        return opened.size();
+    }
+
+    /**
+     * Close all opened streams, the instance is reusable after closed.
+     */
+    @Override
+    public void close() {
+        if (opened.isEmpty()) {
+            return;
+        }
+        for (Closeable closeable : opened) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                log.debug("Close binding stream error.", e);
+            }
+        }
+        opened.clear();
+    }
+}
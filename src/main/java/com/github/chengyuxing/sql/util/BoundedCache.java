@@ -0,0 +1,147 @@
+package com.github.chengyuxing.sql.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Thread-safe bounded cache, the oldest entries are evicted first when the capacity is exceeded.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+    private final int capacity;
+    private final ConcurrentHashMap<K, V> cache;
+    private final Queue<K> keys = new ConcurrentLinkedQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a new BoundedCache with capacity.
+     *
+     * @param capacity max entries, 0 means cache disabled
+     */
+    public BoundedCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+        this.capacity = capacity;
+        this.cache = new ConcurrentHashMap<>(Math.min(capacity, 256));
+    }
+
+    /**
+     * Get the cached value or compute and cache a new one.
+     *
+     * @param key    key
+     * @param loader value loader, computed value should not be null
+     * @return value
+     */
+    public V get(@NotNull K key, @NotNull Function<K, V> loader) {
+        if (capacity == 0) {
+            return loader.apply(key);
+        }
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        V prev = cache.putIfAbsent(key, value);
+        if (prev != null) {
+            return prev;
+        }
+        afterPut(key);
+        return value;
+    }
+
+    /**
+     * Get the cached value.
+     *
+     * @param key key
+     * @return value or null if not cached
+     */
+    public V getIfPresent(@NotNull K key) {
+        if (capacity == 0) {
+            return null;
+        }
+        V value = cache.get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Cache the value.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(@NotNull K key, @NotNull V value) {
+        if (capacity == 0) {
+            return;
+        }
+        if (cache.put(key, value) == null) {
+            afterPut(key);
+        }
+    }
+
+    private void afterPut(K key) {
+        keys.offer(key);
+        while (cache.size() > capacity) {
+            K eldest = keys.poll();
+            if (eldest == null) {
+                break;
+            }
+            if (cache.remove(eldest) != null) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove all cached entries, statistics are not reset.
+     */
+    public void clear() {
+        cache.clear();
+        keys.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedCache{" +
+                "capacity=" + capacity +
+                ", size=" + size() +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", evictions=" + getEvictionCount() +
+                '}';
+    }
+}
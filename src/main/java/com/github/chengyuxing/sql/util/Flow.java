@@ -0,0 +1,89 @@
+package com.github.chengyuxing.sql.util;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reactive streams interfaces which are same as {@code java.util.concurrent.Flow} of Java 9+,
+ * it's easy to adapt to the reactive libraries, e.g. RxJava:
+ * <blockquote>
+ * <pre>
+ * Flowable.fromPublisher(s -&gt; publisher.subscribe(new Flow.Subscriber&lt;DataRow&gt;() {
+ *     public void onSubscribe(Flow.Subscription sub) {
+ *         s.onSubscribe(new org.reactivestreams.Subscription() {
+ *             public void request(long n) { sub.request(n); }
+ *             public void cancel() { sub.cancel(); }
+ *         });
+ *     }
+ *     ...
+ * }))</pre>
+ * </blockquote>
+ */
+public final class Flow {
+    private Flow() {
+    }
+
+    /**
+     * Producer of items received by subscribers.
+     *
+     * @param <T> item type
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+        /**
+         * Subscribe the publisher.
+         *
+         * @param subscriber subscriber
+         */
+        void subscribe(@NotNull Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Receiver of items, the signals are invoked in order: {@code onSubscribe onNext* (onError | onComplete)?}.
+     *
+     * @param <T> item type
+     */
+    public interface Subscriber<T> {
+        /**
+         * Invoked before any other signals.
+         *
+         * @param subscription subscription
+         */
+        void onSubscribe(@NotNull Subscription subscription);
+
+        /**
+         * Invoked with the next item, not more than requested.
+         *
+         * @param item item
+         */
+        void onNext(T item);
+
+        /**
+         * Invoked when the publisher failed, no other signals after it.
+         *
+         * @param throwable error
+         */
+        void onError(@NotNull Throwable throwable);
+
+        /**
+         * Invoked when all items have been published, no other signals after it.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Link of publisher and subscriber.
+     */
+    public interface Subscription {
+        /**
+         * Request more items.
+         *
+         * @param n items count, must be positive
+         */
+        void request(long n);
+
+        /**
+         * Stop receiving items, resources are released.
+         */
+        void cancel();
+    }
+}
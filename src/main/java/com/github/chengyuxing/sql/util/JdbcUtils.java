@@ -9,7 +9,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Date;
 import java.sql.*;
@@ -23,10 +22,27 @@ public class JdbcUtils {
     private static final Logger log = LoggerFactory.getLogger(JdbcUtils.class);
 
     public static Object getResultValue(@Nullable ResultSet resultSet, @Range(from = 1, to = Integer.MAX_VALUE) int index) throws SQLException {
+        return getResultValue(resultSet, index, null);
+    }
+
+    /**
+     * Get result value with the column class name which resolved from the metadata.
+     *
+     * @param resultSet       result set
+     * @param index           column index
+     * @param columnClassName column class name, null means lookup from metadata when required
+     * @return result value
+     * @throws SQLException ex
+     * @see ResultSetMetaData#getColumnClassName(int)
+     */
+    public static Object getResultValue(@Nullable ResultSet resultSet, @Range(from = 1, to = Integer.MAX_VALUE) int index, @Nullable String columnClassName) throws SQLException {
         if (resultSet == null) {
             return null;
         }
-        Object obj = resultSet.getObject(index);
+        return getResultValue(resultSet, index, resultSet.getObject(index), columnClassName);
+    }
+
+    static Object getResultValue(@NotNull ResultSet resultSet, int index, Object obj, @Nullable String columnClassName) throws SQLException {
         String className = null;
         if (obj != null) {
             className = obj.getClass().getName();
@@ -47,21 +63,47 @@ public class JdbcUtils {
         } else if ("oracle.sql.TIMESTAMP".equals(className) || "oracle.sql.TIMESTAMPTZ".equals(className)) {
             obj = resultSet.getTimestamp(index);
         } else if (className != null && className.startsWith("oracle.sql.DATE")) {
-            String metaDataClassName = resultSet.getMetaData().getColumnClassName(index);
+            String metaDataClassName = columnClassName != null ? columnClassName : resultSet.getMetaData().getColumnClassName(index);
             if ("java.sql.Timestamp".equals(metaDataClassName) || "oracle.sql.TIMESTAMP".equals(metaDataClassName)) {
                 obj = resultSet.getTimestamp(index);
             } else {
                 obj = resultSet.getDate(index);
             }
         } else if (obj instanceof java.sql.Date) {
-            if ("java.sql.Timestamp".equals(resultSet.getMetaData().getColumnClassName(index))) {
+            String metaDataClassName = columnClassName != null ? columnClassName : resultSet.getMetaData().getColumnClassName(index);
+            if ("java.sql.Timestamp".equals(metaDataClassName)) {
                 obj = resultSet.getTimestamp(index);
             }
         }
         return obj;
     }
 
+    /**
+     * Set the statement parameter value, {@link Path} and {@link File} are bound as known-length
+     * binary stream which registered to the {@link BindingStreams#current() current binding streams}
+     * and closed after the statement completed, the stream is not closed if no current binding streams,
+     * e.g. invoked out of the statement value handler.
+     *
+     * @param ps    prepared statement
+     * @param index parameter index
+     * @param value parameter value
+     * @throws SQLException if connection states error
+     */
     public static void setStatementValue(@NotNull PreparedStatement ps, @Range(from = 1, to = Integer.MAX_VALUE) int index, Object value) throws SQLException {
+        setStatementValue(ps, index, value, BindingStreams.current());
+    }
+
+    /**
+     * Set the statement parameter value, {@link Path} and {@link File} are bound as known-length
+     * binary stream which registered to the binding streams.
+     *
+     * @param ps      prepared statement
+     * @param index   parameter index
+     * @param value   parameter value
+     * @param streams binding streams which closed after the statement completed, null means not managed
+     * @throws SQLException if connection states error
+     */
+    public static void setStatementValue(@NotNull PreparedStatement ps, @Range(from = 1, to = Integer.MAX_VALUE) int index, Object value, @Nullable BindingStreams streams) throws SQLException {
         if (value == null) {
             ps.setNull(index, Types.NULL);
         } else if (value instanceof java.util.Date) {
@@ -82,20 +124,19 @@ public class JdbcUtils {
             ps.setTimestamp(index, Timestamp.from((Instant) value));
         } else if (value instanceof UUID) {
             ps.setString(index, value.toString().replace("-", ""));
+        } else if (value instanceof SizedInputStream) {
+            ps.setBinaryStream(index, (SizedInputStream) value, ((SizedInputStream) value).length());
         } else if (value instanceof InputStream) {
             ps.setBinaryStream(index, (InputStream) value);
-        } else if (value instanceof Path) {
+        } else if (value instanceof Path || value instanceof File) {
+            SizedInputStream in;
             try {
-                ps.setBinaryStream(index, Files.newInputStream((Path) value));
-            } catch (IOException e) {
-                throw new IllegalArgumentException("Set binary value failed.", e);
-            }
-        } else if (value instanceof File) {
-            try {
-                ps.setBinaryStream(index, new FileInputStream((File) value));
-            } catch (FileNotFoundException e) {
-                throw new IllegalArgumentException("Set binary value failed.", e);
+                Path path = value instanceof Path ? (Path) value : ((File) value).toPath();
+                in = streams == null ? SizedInputStream.open(path) : streams.register(SizedInputStream.open(path));
+            } catch (UncheckedIOException e) {
+                throw new IllegalArgumentException("Set binary value failed.", e.getCause());
             }
+            ps.setBinaryStream(index, in, in.length());
         } else {
             ps.setObject(index, value);
         }
@@ -111,6 +152,38 @@ public class JdbcUtils {
      * @throws SQLException sql exp
      */
     public static DataRow getResult(@NotNull PreparedStatement statement, @NotNull final String sql) throws SQLException {
+        DataRow result = getCurrentResult(statement, sql);
+        return result == null ? new DataRow(0) : result;
+    }
+
+    /**
+     * Do execute multi statements or procedure to get all results by {@link Statement#getMoreResults()},
+     * each result is same as {@link #getResult(PreparedStatement, String)}.
+     *
+     * @param statement statement
+     * @param sql       executed sql
+     * @return results in order
+     * @throws SQLException sql exp
+     */
+    public static List<DataRow> getResults(@NotNull Statement statement, @NotNull final String sql) throws SQLException {
+        List<DataRow> results = new ArrayList<>();
+        DataRow result;
+        while ((result = getCurrentResult(statement, sql)) != null) {
+            results.add(result);
+            statement.getMoreResults();
+        }
+        return results;
+    }
+
+    /**
+     * Get the current result of the statement, the result set is read and closed.
+     *
+     * @param statement statement
+     * @param sql       executed sql
+     * @return result or null if no more results
+     * @throws SQLException sql exp
+     */
+    public static @Nullable DataRow getCurrentResult(@NotNull Statement statement, @NotNull final String sql) throws SQLException {
         ResultSet resultSet = statement.getResultSet();
         if (resultSet != null) {
             List<DataRow> result = createDataRows(resultSet, sql, -1);
@@ -121,7 +194,7 @@ public class JdbcUtils {
         if (i != -1) {
             return DataRow.of("result", i, "type", "DD(M)L");
         }
-        return new DataRow(0);
+        return null;
     }
 
     /**
@@ -175,20 +248,61 @@ public class JdbcUtils {
      * @throws SQLException ex
      */
     public static String[] createNames(@NotNull ResultSet resultSet, @NotNull final String executedSql) throws SQLException {
-        ResultSetMetaData metaData = resultSet.getMetaData();
-        int columnCount = metaData.getColumnCount();
-        String[] names = new String[columnCount];
-        for (int i = 0; i < columnCount; i++) {
-            String columnName = metaData.getColumnLabel(i + 1);
-            if (!executedSql.contains("\"" + columnName + "\"")) {
-                columnName = columnName.toLowerCase();
-            }
-            if (columnName.equals("?column?")) {
-                columnName = "column" + i;
+        return RowDecoder.of(resultSet, executedSql).getNames();
+    }
+
+    /**
+     * Estimate the result set fetch size by row width, wide rows get fewer rows per round trip.
+     *
+     * @param metaData   result set meta data
+     * @param bufferSize max bytes per fetch
+     * @param fetchSize  max rows per fetch
+     * @return fetch size between 1 and fetchSize
+     * @throws SQLException ex
+     */
+    public static int estimateFetchSize(@NotNull ResultSetMetaData metaData,
+                                        @Range(from = 1, to = Integer.MAX_VALUE) int bufferSize,
+                                        @Range(from = 1, to = Integer.MAX_VALUE) int fetchSize) throws SQLException {
+        return estimateFetchSize(estimateRowWidth(metaData), bufferSize, fetchSize);
+    }
+
+    /**
+     * Estimate the result set fetch size by row width.
+     *
+     * @param rowWidth   estimated row width, 0 means unknown
+     * @param bufferSize max bytes per fetch
+     * @param fetchSize  max rows per fetch
+     * @return fetch size between 1 and fetchSize
+     * @see #estimateRowWidth(ResultSetMetaData)
+     */
+    public static int estimateFetchSize(long rowWidth,
+                                        @Range(from = 1, to = Integer.MAX_VALUE) int bufferSize,
+                                        @Range(from = 1, to = Integer.MAX_VALUE) int fetchSize) {
+        if (rowWidth <= 0) {
+            return fetchSize;
+        }
+        return (int) Math.max(1, Math.min(fetchSize, bufferSize / rowWidth));
+    }
+
+    /**
+     * Estimate the result set row width in bytes by column display size.
+     *
+     * @param metaData result set meta data
+     * @return row width, 0 if no columns
+     * @throws SQLException ex
+     */
+    public static long estimateRowWidth(@NotNull ResultSetMetaData metaData) throws SQLException {
+        long rowWidth = 0;
+        for (int i = 1, j = metaData.getColumnCount(); i <= j; i++) {
+            int width = metaData.getColumnDisplaySize(i);
+            // unknown or unlimited width, e.g. text, blob.
+            if (width <= 0 || width > 4096) {
+                width = 4096;
             }
-            names[i] = columnName;
+            // per column overhead.
+            rowWidth += width + 16;
         }
-        return names;
+        return rowWidth;
     }
 
     /**
@@ -221,12 +335,12 @@ public class JdbcUtils {
             return Collections.emptyList();
         }
         List<DataRow> list = new ArrayList<>();
-        String[] names = createNames(resultSet, executedSql);
+        RowDecoder decoder = RowDecoder.of(resultSet, executedSql);
         long size = fetchSize;
         while (resultSet.next()) {
             if (size == 0)
                 break;
-            list.add(createDataRow(names, resultSet));
+            list.add(decoder.createDataRow(resultSet));
             size--;
         }
         return list;
@@ -0,0 +1,189 @@
+package com.github.chengyuxing.sql.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Layered args view, lookup from the last layer to the first layer without copying, e.g.
+ * <blockquote>
+ * <pre>LayeredArgs.of(userArgs, internalArgs, pagedArgs)</pre>
+ * </blockquote>
+ * <p>is same as:</p>
+ * <blockquote>
+ * <pre>
+ * Map&lt;String, Object&gt; args = new HashMap&lt;&gt;();
+ * args.putAll(userArgs);
+ * args.putAll(internalArgs);
+ * args.putAll(pagedArgs);</pre>
+ * </blockquote>
+ * <p>The layers are never modified, {@code put} and {@code remove} only affect the view itself.</p>
+ */
+public final class LayeredArgs extends AbstractMap<String, Object> {
+    private final List<Map<String, ?>> layers;
+    private Map<String, Object> overlay;
+    private Set<Object> removed;
+
+    private LayeredArgs(List<Map<String, ?>> layers) {
+        this.layers = layers;
+    }
+
+    /**
+     * Returns a layered args view, the latter layer overrides the former layer.
+     *
+     * @param layers layers, null layer will be ignored
+     * @return layered args view
+     */
+    @SafeVarargs
+    public static LayeredArgs of(Map<String, ?>... layers) {
+        List<Map<String, ?>> list = new ArrayList<>(layers.length);
+        for (Map<String, ?> layer : layers) {
+            if (layer != null) {
+                list.add(layer);
+            }
+        }
+        return new LayeredArgs(list);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (removed != null && removed.contains(key)) {
+            return null;
+        }
+        if (overlay != null) {
+            Object v = overlay.get(key);
+            if (v != null || overlay.containsKey(key)) {
+                return v;
+            }
+        }
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            Map<String, ?> layer = layers.get(i);
+            Object v = layer.get(key);
+            if (v != null || layer.containsKey(key)) {
+                return v;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (removed != null && removed.contains(key)) {
+            return false;
+        }
+        if (overlay != null && overlay.containsKey(key)) {
+            return true;
+        }
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            if (layers.get(i).containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object old = get(key);
+        if (overlay == null) {
+            overlay = new HashMap<>();
+        }
+        overlay.put(key, value);
+        if (removed != null) {
+            removed.remove(key);
+        }
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        Object old = get(key);
+        if (overlay != null) {
+            overlay.remove(key);
+        }
+        if (removed == null) {
+            removed = new HashSet<>();
+        }
+        removed.add(key);
+        return old;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (overlay != null && !overlay.isEmpty()) {
+            return false;
+        }
+        for (Map<String, ?> layer : layers) {
+            if (removed == null) {
+                if (!layer.isEmpty()) {
+                    return false;
+                }
+                continue;
+            }
+            for (String key : layer.keySet()) {
+                if (!removed.contains(key)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        int size = overlay == null ? 0 : overlay.size();
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            for (String key : layers.get(i).keySet()) {
+                if (isVisible(key, i)) {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Check the key of the layer is visible, it's not removed and not overridden by the overlay or the latter layers.
+     *
+     * @param key   key
+     * @param index layer index
+     * @return true if visible
+     */
+    private boolean isVisible(String key, int index) {
+        if (removed != null && removed.contains(key)) {
+            return false;
+        }
+        if (overlay != null && overlay.containsKey(key)) {
+            return false;
+        }
+        for (int i = layers.size() - 1; i > index; i--) {
+            if (layers.get(i).containsKey(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the merged snapshot entries, it is not cheap as lookup, avoid to call it in hot path.
+     *
+     * @return merged entries
+     */
+    @Override
+    public @NotNull Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> merged = new LinkedHashMap<>();
+        for (Map<String, ?> layer : layers) {
+            merged.putAll(layer);
+        }
+        if (overlay != null) {
+            merged.putAll(overlay);
+        }
+        if (removed != null) {
+            merged.keySet().removeAll(removed);
+        }
+        return Collections.unmodifiableMap(merged).entrySet();
+    }
+}
@@ -0,0 +1,417 @@
+package com.github.chengyuxing.sql.util;
+
+import com.github.chengyuxing.common.DataRow;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * LOB streams of a query, the BLOB/CLOB columns are surfaced as lazily opened {@link InputStream}/{@link Reader}
+ * instead of reading into {@code byte[]}/{@link String}, the opened streams of the previous row are closed and
+ * LOBs are freed when the cursor advances to the next row, the rest are closed when the query stream closed, e.g.
+ * <blockquote>
+ * <pre>
+ * try (Stream&lt;DataRow&gt; s = baki.query("select id, content from test.files").streamLobs().stream()) {
+ *     s.forEach(d -&gt; LobStreams.transferTo(d.getAs("content"), Paths.get("/data", d.getString("id"))));
+ * }</pre>
+ * </blockquote>
+ * <p>LOB streams must be consumed before the next row is read, e.g. don't collect the rows to a list
+ * and read the LOB streams later.</p>
+ */
+public final class LobStreams implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(LobStreams.class);
+    private static final int BUFFER_SIZE = 8192;
+    private final Set<Closeable> opened = new LinkedHashSet<>();
+    private boolean closed = false;
+
+    /**
+     * Returns a row mapper factory which maps the LOB columns to lazily opened streams,
+     * the LOB streams of the query are closed with the row mapper.
+     *
+     * @return row mapper factory
+     */
+    public static RowMapper.Factory<DataRow> dataRowMapperFactory() {
+        return (resultSet, executedSql) -> new DataRowMapper(RowDecoder.of(resultSet, executedSql));
+    }
+
+    private static final class DataRowMapper implements RowMapper<DataRow>, AutoCloseable {
+        private final RowDecoder decoder;
+        private final LobStreams lobs = new LobStreams();
+
+        DataRowMapper(RowDecoder decoder) {
+            this.decoder = decoder;
+        }
+
+        @Override
+        public DataRow mapRow(@NotNull ResultSet resultSet) throws SQLException {
+            // the cursor has been advanced, the LOBs of the previous row are no longer required.
+            lobs.release();
+            return decoder.createDataRow(resultSet, lobs);
+        }
+
+        @Override
+        public void close() {
+            lobs.close();
+        }
+    }
+
+    /**
+     * Open a lazy input stream of the BLOB, the binary stream is opened when the first read.
+     *
+     * @param blob blob
+     * @return input stream
+     */
+    public synchronized BlobInputStream open(@NotNull Blob blob) {
+        BlobInputStream in = new BlobInputStream(blob);
+        register(in);
+        return in;
+    }
+
+    /**
+     * Open a lazy reader of the CLOB, the character stream is opened when the first read.
+     *
+     * @param clob clob
+     * @return reader
+     */
+    public synchronized ClobReader open(@NotNull Clob clob) {
+        ClobReader reader = new ClobReader(clob);
+        register(reader);
+        return reader;
+    }
+
+    private void register(Closeable closeable) {
+        if (closed) {
+            throw new IllegalStateException("LOB streams have been closed.");
+        }
+        opened.add(closeable);
+    }
+
+    private synchronized void unregister(Closeable closeable) {
+        opened.remove(closeable);
+    }
+
+    /**
+     * Close all opened LOB streams, the new LOB streams can still be opened after released,
+     * e.g. the LOBs of the previous row.
+     */
+    public void release() {
+        Closeable[] closeables;
+        synchronized (this) {
+            if (opened.isEmpty()) {
+                return;
+            }
+            closeables = opened.toArray(new Closeable[0]);
+            opened.clear();
+        }
+        closeAll(closeables);
+    }
+
+    /**
+     * Close all opened LOB streams.
+     */
+    @Override
+    public void close() {
+        Closeable[] closeables;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closeables = opened.toArray(new Closeable[0]);
+            opened.clear();
+        }
+        closeAll(closeables);
+    }
+
+    private static void closeAll(Closeable[] closeables) {
+        for (Closeable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                log.debug("Close LOB stream error.", e);
+            }
+        }
+    }
+
+    /**
+     * Get the count of opened and not yet closed LOB streams.
+     *
+     * @return opened count
+     */
+    public synchronized int openedCount() {
+        return opened.size();
+    }
+
+    /**
+     * Transfer the input stream to channel by NIO, the input stream is not closed.
+     *
+     * @param in      input stream
+     * @param channel target channel
+     * @return transferred bytes
+     * @throws UncheckedIOException if I/O error
+     */
+    public static long transferTo(@NotNull InputStream in, @NotNull WritableByteChannel channel) {
+        try {
+            ReadableByteChannel source = Channels.newChannel(in);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long total = 0;
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    total += channel.write(buffer);
+                }
+                buffer.clear();
+            }
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Transfer stream error.", e);
+        }
+    }
+
+    /**
+     * Transfer the input stream to file, the file is created or truncated, the input stream is not closed.
+     *
+     * @param in     input stream
+     * @param target target file
+     * @return transferred bytes
+     * @throws UncheckedIOException if I/O error
+     */
+    public static long transferTo(@NotNull InputStream in, @NotNull Path target) {
+        try (FileChannel fc = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return transferTo(in, fc);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Transfer stream to " + target + " error.", e);
+        }
+    }
+
+    /**
+     * Transfer the reader to channel with charset, the reader is not closed.
+     *
+     * @param reader  reader
+     * @param channel target channel
+     * @param charset charset
+     * @return transferred bytes
+     * @throws UncheckedIOException if I/O error
+     */
+    public static long transferTo(@NotNull Reader reader, @NotNull WritableByteChannel channel, @NotNull Charset charset) {
+        try {
+            CharsetEncoder encoder = charset.newEncoder();
+            CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+            ByteBuffer bytes = ByteBuffer.allocate((int) (BUFFER_SIZE * encoder.maxBytesPerChar()) + 16);
+            long total = 0;
+            boolean eof = false;
+            while (!eof) {
+                eof = reader.read(chars) == -1;
+                chars.flip();
+                CoderResult result = encoder.encode(chars, bytes, eof);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                if (eof) {
+                    encoder.flush(bytes);
+                }
+                bytes.flip();
+                while (bytes.hasRemaining()) {
+                    total += channel.write(bytes);
+                }
+                bytes.clear();
+                chars.compact();
+            }
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Transfer reader error.", e);
+        }
+    }
+
+    /**
+     * Transfer the reader to file with charset, the file is created or truncated, the reader is not closed.
+     *
+     * @param reader  reader
+     * @param target  target file
+     * @param charset charset
+     * @return transferred bytes
+     * @throws UncheckedIOException if I/O error
+     */
+    public static long transferTo(@NotNull Reader reader, @NotNull Path target, @NotNull Charset charset) {
+        try (FileChannel fc = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return transferTo(reader, fc, charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Transfer reader to " + target + " error.", e);
+        }
+    }
+
+    /**
+     * Lazily opened BLOB input stream.
+     */
+    public final class BlobInputStream extends InputStream {
+        private final Blob blob;
+        private InputStream in;
+        private boolean closed = false;
+
+        BlobInputStream(Blob blob) {
+            this.blob = blob;
+        }
+
+        private InputStream in() throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed.");
+            }
+            if (in == null) {
+                try {
+                    in = blob.getBinaryStream();
+                } catch (SQLException e) {
+                    throw new IOException("Open blob stream error.", e);
+                }
+            }
+            return in;
+        }
+
+        /**
+         * Get the BLOB length.
+         *
+         * @return bytes length
+         * @throws UncheckedIOException if the BLOB is not accessible
+         */
+        public long length() {
+            try {
+                return blob.length();
+            } catch (SQLException e) {
+                throw new UncheckedIOException(new IOException("Get blob length error.", e));
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            return in().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return in().read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return in().skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in().available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            unregister(this);
+            try {
+                if (in != null) {
+                    in.close();
+                }
+            } finally {
+                free(blob);
+            }
+        }
+
+        private void free(Blob blob) {
+            try {
+                blob.free();
+            } catch (SQLException | AbstractMethodError | UnsupportedOperationException e) {
+                log.debug("Free blob error.", e);
+            }
+        }
+    }
+
+    /**
+     * Lazily opened CLOB reader.
+     */
+    public final class ClobReader extends Reader {
+        private final Clob clob;
+        private Reader reader;
+        private boolean closed = false;
+
+        ClobReader(Clob clob) {
+            this.clob = clob;
+        }
+
+        private Reader reader() throws IOException {
+            if (closed) {
+                throw new IOException("Reader closed.");
+            }
+            if (reader == null) {
+                try {
+                    reader = clob.getCharacterStream();
+                } catch (SQLException e) {
+                    throw new IOException("Open clob reader error.", e);
+                }
+            }
+            return reader;
+        }
+
+        /**
+         * Get the CLOB length.
+         *
+         * @return characters length
+         * @throws UncheckedIOException if the CLOB is not accessible
+         */
+        public long length() {
+            try {
+                return clob.length();
+            } catch (SQLException e) {
+                throw new UncheckedIOException(new IOException("Get clob length error.", e));
+            }
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return reader().read(cbuf, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return reader().skip(n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            unregister(this);
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+            } finally {
+                try {
+                    clob.free();
+                } catch (SQLException | AbstractMethodError | UnsupportedOperationException e) {
+                    log.debug("Free clob error.", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.chengyuxing.sql.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.regex.Pattern;
+
+/**
+ * Multi-row insert of the prepared insert sql, the single {@code values (?, ?, ...)} group is repeated
+ * to insert multiple rows in one statement, e.g.
+ * <blockquote>
+ * <pre>insert into test.user(id, name) values (?, ?)</pre>
+ * </blockquote>
+ * <p>rewrite to 3 rows:</p>
+ * <blockquote>
+ * <pre>insert into test.user(id, name) values (?, ?), (?, ?), (?, ?)</pre>
+ * </blockquote>
+ * <p>The trailing clause (e.g. {@code on conflict do nothing}) is kept, only the insert which all
+ * parameters in the values group is rewritable.</p>
+ * <p>The upsert {@code on conflict ... do update} (e.g. PostgreSQL, Kingbase, SQLite) is not rewritable,
+ * the statement fails with "cannot affect row a second time" if a chunk contains the duplicate keys.</p>
+ */
+public final class MultiRowInsert {
+    private static final Pattern CONFLICT_DO_UPDATE = Pattern.compile("\\bon\\s+conflict\\b.*\\bdo\\s+update\\b", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private final String head;
+    private final String group;
+    private final String tail;
+    private final int parameterCount;
+
+    private MultiRowInsert(String head, String group, String tail, int parameterCount) {
+        this.head = head;
+        this.group = group;
+        this.tail = tail;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * Parse the prepared insert sql.
+     *
+     * @param preparedSql prepared sql, e.g. {@code insert into t(a, b) values (?, ?)}
+     * @return multi-row insert or null if the sql is not rewritable, e.g. {@code insert ... select},
+     * multiple values groups, parameters out of the values group or {@code on conflict ... do update}
+     */
+    public static @Nullable MultiRowInsert parse(@NotNull String preparedSql) {
+        String sql = preparedSql.trim();
+        if (sql.endsWith(";")) {
+            sql = sql.substring(0, sql.length() - 1).trim();
+        }
+        if (!sql.regionMatches(true, 0, "insert", 0, 6)) {
+            return null;
+        }
+        int valuesStart = -1;
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            int skip = skipQuotedOrComment(sql, i);
+            if (skip != i) {
+                i = skip;
+                continue;
+            }
+            if (c == '?') {
+                // parameter before values group.
+                return null;
+            }
+            if ((c == 'v' || c == 'V') && sql.regionMatches(true, i, "values", 0, 6) &&
+                    (i == 0 || !isWordChar(sql.charAt(i - 1))) &&
+                    (i + 6 == length || !isWordChar(sql.charAt(i + 6)))) {
+                valuesStart = i + 6;
+                break;
+            }
+            i++;
+        }
+        if (valuesStart == -1) {
+            return null;
+        }
+        int groupStart = valuesStart;
+        while (groupStart < length && Character.isWhitespace(sql.charAt(groupStart))) {
+            groupStart++;
+        }
+        if (groupStart == length || sql.charAt(groupStart) != '(') {
+            return null;
+        }
+        int depth = 0;
+        int parameterCount = 0;
+        int groupEnd = -1;
+        i = groupStart;
+        while (i < length) {
+            char c = sql.charAt(i);
+            int skip = skipQuotedOrComment(sql, i);
+            if (skip != i) {
+                i = skip;
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    groupEnd = i + 1;
+                    break;
+                }
+            } else if (c == '?') {
+                parameterCount++;
+            }
+            i++;
+        }
+        if (groupEnd == -1 || parameterCount == 0) {
+            return null;
+        }
+        String tail = sql.substring(groupEnd);
+        // tail without quoted string and comments.
+        StringBuilder clause = new StringBuilder(tail.length());
+        i = 0;
+        while (i < tail.length()) {
+            char c = tail.charAt(i);
+            int skip = skipQuotedOrComment(tail, i);
+            if (skip != i) {
+                clause.append(' ');
+                i = skip;
+                continue;
+            }
+            clause.append(c);
+            if (c == '?') {
+                // parameter after values group.
+                return null;
+            }
+            if (c == ',' && tail.substring(0, i).trim().isEmpty()) {
+                // already multi-row.
+                return null;
+            }
+            i++;
+        }
+        if (CONFLICT_DO_UPDATE.matcher(clause).find()) {
+            // duplicate keys in one statement: cannot affect row a second time.
+            return null;
+        }
+        return new MultiRowInsert(sql.substring(0, groupStart), sql.substring(groupStart, groupEnd), tail, parameterCount);
+    }
+
+    private static int skipQuotedOrComment(String sql, int i) {
+        char c = sql.charAt(i);
+        int length = sql.length();
+        if (c == '\'' || c == '"' || c == '`') {
+            int j = i + 1;
+            while (j < length) {
+                if (sql.charAt(j) == c) {
+                    if (j + 1 < length && sql.charAt(j + 1) == c) {
+                        j += 2;
+                        continue;
+                    }
+                    return j + 1;
+                }
+                j++;
+            }
+            return length;
+        }
+        if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+            int end = sql.indexOf('\n', i);
+            return end == -1 ? length : end + 1;
+        }
+        if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+            int end = sql.indexOf("*/", i + 2);
+            return end == -1 ? length : end + 2;
+        }
+        return i;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * Get the parameter count of each row.
+     *
+     * @return parameter count
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Generate the insert sql of rows.
+     *
+     * @param rows row count
+     * @return multi-row insert sql
+     */
+    public String sql(@Range(from = 1, to = Integer.MAX_VALUE) int rows) {
+        StringBuilder sb = new StringBuilder(head.length() + tail.length() + (group.length() + 2) * rows);
+        sb.append(head).append(group);
+        for (int i = 1; i < rows; i++) {
+            sb.append(", ").append(group);
+        }
+        return sb.append(tail).toString();
+    }
+
+    @Override
+    public String toString() {
+        return sql(1);
+    }
+}
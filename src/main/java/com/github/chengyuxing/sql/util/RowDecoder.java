@@ -0,0 +1,348 @@
+package com.github.chengyuxing.sql.util;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.sql.types.CompactRow;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Result set row decoder plan, built once from {@link ResultSetMetaData} and cached by executed sql,
+ * holds the resolved column names and one reader per column which resolved from the column class name
+ * reported by the metadata, the column is read by the typed getter (e.g. {@link ResultSet#getLong(int)},
+ * {@link ResultSet#getTimestamp(int)}) if the class name is plain type, otherwise
+ * {@link JdbcUtils#getResultValue(ResultSet, int, String) generic reader} is used.
+ * <p>The column type of the dynamically typed database (e.g. sqlite) is the declared type instead of the
+ * value type, the value is always read by {@link ResultSet#getObject(int)} and checked per value.</p>
+ */
+public final class RowDecoder {
+    /**
+     * Max cached decoder plan count.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 512;
+    private static final BoundedCache<String, RowDecoder> CACHE = new BoundedCache<>(DEFAULT_CACHE_SIZE);
+    /**
+     * Column class names which value returned by {@link ResultSet#getObject(int)} is not required to convert.
+     */
+    private static final Set<String> PLAIN_CLASS_NAMES = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Integer", "java.lang.Long", "java.lang.Short",
+            "java.lang.Double", "java.lang.Float", "java.lang.Boolean", "java.math.BigDecimal",
+            "java.sql.Timestamp", "java.sql.Time", "[B"));
+    /**
+     * Database product names (lower case) which values of the column may be any type.
+     */
+    private static final Set<String> DYNAMICALLY_TYPED_DATABASES = Collections.singleton("sqlite");
+    private final boolean typed;
+    private final String[] labels;
+    private final int[] types;
+    private final String[] classNames;
+    private final String[] names;
+    private final ColumnReader[] readers;
+    /**
+     * Compact row schema and the schema slot of each column, lazily created.
+     */
+    private volatile CompactSchema compactSchema;
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet resultSet, int index) throws SQLException;
+    }
+
+    private RowDecoder(boolean typed, String[] labels, int[] types, String[] classNames, String[] names) {
+        this.typed = typed;
+        this.labels = labels;
+        this.types = types;
+        this.classNames = classNames;
+        this.names = names;
+        this.readers = new ColumnReader[names.length];
+        for (int i = 0; i < names.length; i++) {
+            this.readers[i] = typed ? typedColumnReader(classNames[i]) : checkedColumnReader(classNames[i]);
+        }
+    }
+
+    /**
+     * Get the cached decoder plan or build a new one if the result set columns changed.
+     *
+     * @param resultSet   result set
+     * @param executedSql executed query sql, check column which be double-quoted for exclude case-sensitive column,
+     *                    empty sql will not be cached
+     * @return row decoder
+     * @throws SQLException ex
+     */
+    public static RowDecoder of(@NotNull ResultSet resultSet, @NotNull String executedSql) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        boolean typed = isStaticallyTyped(resultSet);
+        if (executedSql.isEmpty()) {
+            return build(typed, metaData, executedSql);
+        }
+        RowDecoder decoder = CACHE.getIfPresent(executedSql);
+        if (decoder != null && decoder.typed == typed && decoder.matches(metaData)) {
+            return decoder;
+        }
+        decoder = build(typed, metaData, executedSql);
+        CACHE.put(executedSql, decoder);
+        return decoder;
+    }
+
+    /**
+     * Check the column values are the type which reported by the metadata.
+     *
+     * @param resultSet result set
+     * @return false if the database is dynamically typed or unknown
+     * @throws SQLException ex
+     */
+    private static boolean isStaticallyTyped(ResultSet resultSet) throws SQLException {
+        Statement statement = resultSet.getStatement();
+        if (statement == null) {
+            return false;
+        }
+        String productName = statement.getConnection().getMetaData().getDatabaseProductName();
+        return productName != null && !DYNAMICALLY_TYPED_DATABASES.contains(productName.toLowerCase());
+    }
+
+    private static RowDecoder build(boolean typed, ResultSetMetaData metaData, String executedSql) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        int[] types = new int[columnCount];
+        String[] classNames = new String[columnCount];
+        String[] names = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            String label = metaData.getColumnLabel(i + 1);
+            labels[i] = label;
+            types[i] = metaData.getColumnType(i + 1);
+            classNames[i] = metaData.getColumnClassName(i + 1);
+            String columnName = label;
+            if (!executedSql.contains("\"" + columnName + "\"")) {
+                columnName = columnName.toLowerCase();
+            }
+            if (columnName.equals("?column?")) {
+                columnName = "column" + i;
+            }
+            names[i] = columnName;
+        }
+        return new RowDecoder(typed, labels, types, classNames, names);
+    }
+
+    private boolean matches(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        if (columnCount != labels.length) {
+            return false;
+        }
+        for (int i = 0; i < columnCount; i++) {
+            if (types[i] != metaData.getColumnType(i + 1) ||
+                    !labels[i].equals(metaData.getColumnLabel(i + 1)) ||
+                    !Objects.equals(classNames[i], metaData.getColumnClassName(i + 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the column value.
+     *
+     * @param resultSet result set
+     * @param index     column index
+     * @return column value
+     * @throws SQLException ex
+     */
+    public Object getValue(@NotNull ResultSet resultSet, @Range(from = 1, to = Integer.MAX_VALUE) int index) throws SQLException {
+        return readers[index - 1].read(resultSet, index);
+    }
+
+    private static ColumnReader typedColumnReader(String columnClassName) {
+        if (columnClassName == null) {
+            return (rs, i) -> JdbcUtils.getResultValue(rs, i, null);
+        }
+        switch (columnClassName) {
+            case "java.lang.String":
+                return ResultSet::getString;
+            case "java.lang.Integer":
+                return (rs, i) -> {
+                    int v = rs.getInt(i);
+                    return rs.wasNull() ? null : v;
+                };
+            case "java.lang.Long":
+                return (rs, i) -> {
+                    long v = rs.getLong(i);
+                    return rs.wasNull() ? null : v;
+                };
+            case "java.lang.Short":
+                return (rs, i) -> {
+                    short v = rs.getShort(i);
+                    return rs.wasNull() ? null : v;
+                };
+            case "java.lang.Double":
+                return (rs, i) -> {
+                    double v = rs.getDouble(i);
+                    return rs.wasNull() ? null : v;
+                };
+            case "java.lang.Float":
+                return (rs, i) -> {
+                    float v = rs.getFloat(i);
+                    return rs.wasNull() ? null : v;
+                };
+            case "java.lang.Boolean":
+                return (rs, i) -> {
+                    boolean v = rs.getBoolean(i);
+                    return rs.wasNull() ? null : v;
+                };
+            case "java.math.BigDecimal":
+                return ResultSet::getBigDecimal;
+            case "java.sql.Timestamp":
+                return ResultSet::getTimestamp;
+            case "java.sql.Time":
+                return ResultSet::getTime;
+            case "[B":
+                return ResultSet::getBytes;
+            default:
+                return (rs, i) -> JdbcUtils.getResultValue(rs, i, columnClassName);
+        }
+    }
+
+    private static ColumnReader checkedColumnReader(String columnClassName) {
+        if (columnClassName != null && PLAIN_CLASS_NAMES.contains(columnClassName)) {
+            // the value is checked per row, e.g. sqlite reports Integer but returns Long/Double/String.
+            return (rs, i) -> {
+                Object value = rs.getObject(i);
+                if (value == null || columnClassName.equals(value.getClass().getName())) {
+                    return value;
+                }
+                return JdbcUtils.getResultValue(rs, i, value, columnClassName);
+            };
+        }
+        return (rs, i) -> JdbcUtils.getResultValue(rs, i, columnClassName);
+    }
+
+    /**
+     * Create DataRow from the current row of result set.
+     *
+     * @param resultSet result set
+     * @return DataRow
+     * @throws SQLException ex
+     */
+    public DataRow createDataRow(@NotNull ResultSet resultSet) throws SQLException {
+        int columnCount = names.length;
+        DataRow row = new DataRow(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            row.put(names[i], getValue(resultSet, i + 1));
+        }
+        return row;
+    }
+
+    /**
+     * Create DataRow from the current row of result set, the BLOB/CLOB columns are opened as
+     * lazily {@link java.io.InputStream}/{@link java.io.Reader} by the LOB streams.
+     *
+     * @param resultSet result set
+     * @param lobs      LOB streams of the query
+     * @return DataRow
+     * @throws SQLException ex
+     */
+    public DataRow createDataRow(@NotNull ResultSet resultSet, @NotNull LobStreams lobs) throws SQLException {
+        int columnCount = names.length;
+        DataRow row = new DataRow(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            row.put(names[i], isLob(types[i]) ? getLob(resultSet, i + 1, lobs) : getValue(resultSet, i + 1));
+        }
+        return row;
+    }
+
+    private static boolean isLob(int type) {
+        return type == Types.BLOB || type == Types.CLOB || type == Types.NCLOB;
+    }
+
+    private Object getLob(ResultSet resultSet, int index, LobStreams lobs) throws SQLException {
+        Object value = resultSet.getObject(index);
+        if (value instanceof Blob) {
+            return lobs.open((Blob) value);
+        }
+        if (value instanceof Clob) {
+            return lobs.open((Clob) value);
+        }
+        return value == null ? null : JdbcUtils.getResultValue(resultSet, index, value, classNames[index - 1]);
+    }
+
+    /**
+     * Create compact row from the current row of result set, all rows of the decoder share the same schema,
+     * the duplicate column name keeps the last value as same as {@link #createDataRow(ResultSet)}.
+     *
+     * @param resultSet result set
+     * @return compact row
+     * @throws SQLException ex
+     */
+    public CompactRow createCompactRow(@NotNull ResultSet resultSet) throws SQLException {
+        CompactSchema cs = compactSchema();
+        Object[] values = new Object[cs.schema.size()];
+        int[] slots = cs.slots;
+        for (int i = 0; i < slots.length; i++) {
+            values[slots[i]] = getValue(resultSet, i + 1);
+        }
+        return new CompactRow(cs.schema, values);
+    }
+
+    private CompactSchema compactSchema() {
+        CompactSchema cs = compactSchema;
+        if (cs == null) {
+            Map<String, Integer> distinct = new LinkedHashMap<>();
+            int[] slots = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                Integer slot = distinct.get(names[i]);
+                if (slot == null) {
+                    slot = distinct.size();
+                    distinct.put(names[i], slot);
+                }
+                slots[i] = slot;
+            }
+            cs = new CompactSchema(CompactRow.Schema.of(distinct.keySet().toArray(new String[0])), slots);
+            compactSchema = cs;
+        }
+        return cs;
+    }
+
+    private static final class CompactSchema {
+        private final CompactRow.Schema schema;
+        private final int[] slots;
+
+        CompactSchema(CompactRow.Schema schema, int[] slots) {
+            this.schema = schema;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * Get the resolved column names.
+     *
+     * @return column names copy
+     */
+    public String[] getNames() {
+        return names.clone();
+    }
+
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    /**
+     * Clear the decoder plan cache.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Get the decoder plan cache, it's statistics (hits, misses, evictions) are available.
+     *
+     * @return decoder plan cache
+     */
+    public static BoundedCache<String, RowDecoder> getCache() {
+        return CACHE;
+    }
+
+    @Override
+    public String toString() {
+        return "RowDecoder{" + Arrays.toString(names) + '}';
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.chengyuxing.sql.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Result set row mapper, maps the current row of the result set to an object.
+ *
+ * @param <T> result type
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    /**
+     * Map the current row.
+     *
+     * @param resultSet result set
+     * @return object
+     * @throws SQLException ex
+     */
+    T mapRow(@NotNull ResultSet resultSet) throws SQLException;
+
+    /**
+     * Row mapper factory, create the row mapper once per query after the result set ready.
+     *
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    interface Factory<T> {
+        /**
+         * Create the row mapper.
+         *
+         * @param resultSet   result set
+         * @param executedSql executed sql
+         * @return row mapper
+         * @throws SQLException ex
+         */
+        @NotNull RowMapper<T> create(@NotNull ResultSet resultSet, @NotNull String executedSql) throws SQLException;
+    }
+}
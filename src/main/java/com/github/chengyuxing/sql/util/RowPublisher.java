@@ -0,0 +1,157 @@
+package com.github.chengyuxing.sql.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Cold publisher of the query stream, each subscription opens a new query stream when the first request
+ * arrived, the rows are read by {@link java.sql.ResultSet#next()} only on demand, the stream (statement and connection)
+ * is closed when completed, failed or cancelled.
+ * <p>The rows are emitted on the thread which requested, the subscriber controls the pace by {@link Flow.Subscription#request(long)}.</p>
+ *
+ * @param <T> row type
+ */
+public final class RowPublisher<T> implements Flow.Publisher<T> {
+    private static final Logger log = LoggerFactory.getLogger(RowPublisher.class);
+    private final LongFunction<Stream<T>> opener;
+
+    /**
+     * Constructs a new RowPublisher.
+     *
+     * @param opener query stream opener, the argument is the first requested count which is used to adapt the fetch size
+     */
+    public RowPublisher(@NotNull LongFunction<Stream<T>> opener) {
+        this.opener = opener;
+    }
+
+    @Override
+    public void subscribe(@NotNull Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new RowSubscription<>(subscriber, opener));
+    }
+
+    static final class RowSubscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final LongFunction<Stream<T>> opener;
+        private final AtomicLong requested = new AtomicLong();
+        /**
+         * Work in progress counter, only one thread drains the stream at the same time.
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        private volatile Throwable invalidRequest;
+        private boolean done = false;
+        private Stream<T> stream;
+        private Iterator<T> iterator;
+
+        RowSubscription(Flow.Subscriber<? super T> subscriber, LongFunction<Stream<T>> opener) {
+            this.subscriber = subscriber;
+            this.opener = opener;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Request count must be positive: " + n);
+            } else {
+                for (; ; ) {
+                    long current = requested.get();
+                    if (current == Long.MAX_VALUE) {
+                        break;
+                    }
+                    long next = current + n;
+                    if (next < 0) {
+                        next = Long.MAX_VALUE;
+                    }
+                    if (requested.compareAndSet(current, next)) {
+                        break;
+                    }
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!done) {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            if (invalidRequest != null) {
+                terminate();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            long r = requested.get();
+            if (r == 0) {
+                return;
+            }
+            long e = 0;
+            try {
+                if (iterator == null) {
+                    stream = opener.apply(r);
+                    iterator = stream.iterator();
+                }
+                while (e != r) {
+                    if (cancelled) {
+                        terminate();
+                        return;
+                    }
+                    if (!iterator.hasNext()) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(iterator.next());
+                    e++;
+                }
+            } catch (Throwable ex) {
+                terminate();
+                subscriber.onError(ex);
+                return;
+            }
+            if (r != Long.MAX_VALUE) {
+                requested.addAndGet(-e);
+            }
+        }
+
+        private void terminate() {
+            done = true;
+            iterator = null;
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (Exception ex) {
+                    log.warn("Close query stream error.", ex);
+                }
+                stream = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.chengyuxing.sql.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input stream with known length, bound by {@link java.sql.PreparedStatement#setBinaryStream(int, InputStream, long)}
+ * to avoid the driver buffers the whole payload for unknown length, e.g.
+ * <blockquote>
+ * <pre>baki.update("update test.files set content = :content where id = :id", Args.of("id", 1, "content", SizedInputStream.of(in, size)));</pre>
+ * </blockquote>
+ */
+public final class SizedInputStream extends FilterInputStream {
+    private final long length;
+
+    private SizedInputStream(InputStream in, long length) {
+        super(in);
+        this.length = length;
+    }
+
+    /**
+     * Create a sized input stream.
+     *
+     * @param in     input stream
+     * @param length bytes length of the stream
+     * @return sized input stream
+     */
+    public static SizedInputStream of(@NotNull InputStream in, @Range(from = 0, to = Long.MAX_VALUE) long length) {
+        return new SizedInputStream(in, length);
+    }
+
+    /**
+     * Open the file as {@link FileChannel} backed input stream.
+     *
+     * @param path file path
+     * @return sized input stream
+     * @throws UncheckedIOException if the file is not readable
+     */
+    public static SizedInputStream open(@NotNull Path path) {
+        try {
+            FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                return new SizedInputStream(Channels.newInputStream(fc), fc.size());
+            } catch (IOException e) {
+                fc.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Open file " + path + " error.", e);
+        }
+    }
+
+    public long length() {
+        return length;
+    }
+}
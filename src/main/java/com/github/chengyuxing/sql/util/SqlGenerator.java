@@ -1,8 +1,11 @@
 package com.github.chengyuxing.sql.util;
 
 import com.github.chengyuxing.common.script.ast.impl.KeyExpressionParser;
+import com.github.chengyuxing.common.tuple.Pair;
 import com.github.chengyuxing.common.util.ValueUtils;
+import com.github.chengyuxing.sql.types.DatabaseInfo;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.Function;
@@ -13,11 +16,23 @@ import java.util.regex.Pattern;
  * Sql generate tool.
  */
 public class SqlGenerator {
+    /**
+     * Default max cached prepared SQL count.
+     */
+    public static final int DEFAULT_PREPARED_SQL_CACHE_SIZE = 512;
     private final char namedParamPrefix;
     /**
      * Named parameter pattern.
      */
     private final Pattern namedParamPattern;
+    /**
+     * Named parameter name pattern.
+     */
+    private final Pattern namedParamNamePattern;
+    /**
+     * Parsed prepared SQL cache, key: named parameter SQL.
+     */
+    private final BoundedCache<String, ParsedSql> preparedSqlCache;
 
     /**
      * Constructs a new SqlGenerator with named parameter prefix.
@@ -25,6 +40,16 @@ public class SqlGenerator {
      * @param namedParamPrefix named parameter prefix
      */
     public SqlGenerator(char namedParamPrefix) {
+        this(namedParamPrefix, DEFAULT_PREPARED_SQL_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a new SqlGenerator with named parameter prefix and prepared SQL cache size.
+     *
+     * @param namedParamPrefix     named parameter prefix
+     * @param preparedSqlCacheSize max cached prepared SQL count, 0 means cache disabled
+     */
+    public SqlGenerator(char namedParamPrefix, int preparedSqlCacheSize) {
         if (namedParamPrefix == ' ') {
             throw new IllegalArgumentException("Prefix char cannot be empty.");
         }
@@ -39,6 +64,23 @@ public class SqlGenerator {
                         namedParamPrefix, KeyExpressionParser.EXPRESSION_PATTERN.pattern()),
                 Pattern.DOTALL | Pattern.MULTILINE
         );
+        this.namedParamNamePattern = Pattern.compile(KeyExpressionParser.EXPRESSION_PATTERN.pattern(), Pattern.DOTALL | Pattern.MULTILINE);
+        this.preparedSqlCache = new BoundedCache<>(preparedSqlCacheSize);
+    }
+
+    /**
+     * Parsed result of named parameter SQL which not depends on args.
+     */
+    private static final class ParsedSql {
+        private final String prepareSql;
+        private final Map<String, List<Integer>> argNameIndexMapping;
+        private final List<ArgAccessor> argAccessors;
+
+        ParsedSql(String prepareSql, Map<String, List<Integer>> argNameIndexMapping) {
+            this.prepareSql = prepareSql;
+            this.argNameIndexMapping = argNameIndexMapping;
+            this.argAccessors = createArgAccessors(argNameIndexMapping);
+        }
     }
 
     /**
@@ -49,6 +91,8 @@ public class SqlGenerator {
         private final String prepareSql;
         private final Map<String, List<Integer>> argNameIndexMapping;
         private final Map<String, ?> args;
+        private volatile List<ArgAccessor> argAccessors;
+        private DatabaseInfo databaseInfo;
 
         /**
          * Construct a new GeneratedSqlMetaData instance.
@@ -65,6 +109,22 @@ public class SqlGenerator {
             this.args = args;
         }
 
+        /**
+         * Construct a new GeneratedSqlMetaData instance with precompiled arg accessors.
+         *
+         * @param sourceSql           named parameter SQL
+         * @param prepareSql          prepared SQL
+         * @param argNameIndexMapping prepared SQL arg name index mapping
+         * @param argAccessors        arg accessors of the arg name index mapping
+         * @param args                args
+         * @param databaseInfo        database info of the current statement
+         */
+        public PreparedSqlMetaData(String sourceSql, String prepareSql, Map<String, List<Integer>> argNameIndexMapping, List<ArgAccessor> argAccessors, Map<String, ?> args, DatabaseInfo databaseInfo) {
+            this(sourceSql, prepareSql, argNameIndexMapping, args);
+            this.argAccessors = argAccessors;
+            this.databaseInfo = databaseInfo;
+        }
+
         public String getSourceSql() {
             return sourceSql;
         }
@@ -81,6 +141,27 @@ public class SqlGenerator {
             return args;
         }
 
+        /**
+         * Get the database info which resolved once for the current statement.
+         *
+         * @return database info or null
+         */
+        public @Nullable DatabaseInfo getDatabaseInfo() {
+            return databaseInfo;
+        }
+
+        /**
+         * Get precompiled arg accessors, one per named parameter.
+         *
+         * @return arg accessors
+         */
+        public List<ArgAccessor> getArgAccessors() {
+            if (argAccessors == null) {
+                argAccessors = createArgAccessors(argNameIndexMapping);
+            }
+            return argAccessors;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -111,29 +192,52 @@ public class SqlGenerator {
      * <pre>select * from table where id = ?</pre>
      * </blockquote>
      *
+     * <p>The parsed result is cached by the named parameter SQL, the same SQL will not be parsed again.</p>
+     *
      * @param sql  named parameter SQL
      * @param args data of named parameter
      * @return GeneratedSqlMetaData
      */
     public PreparedSqlMetaData generatePreparedSql(final String sql, Map<String, ?> args) {
+        return generatePreparedSql(sql, args, null);
+    }
+
+    /**
+     * Generate prepared SQL by named parameter SQL with the database info of the current statement.
+     *
+     * @param sql          named parameter SQL
+     * @param args         data of named parameter
+     * @param databaseInfo database info
+     * @return GeneratedSqlMetaData
+     * @see #generatePreparedSql(String, Map)
+     */
+    public PreparedSqlMetaData generatePreparedSql(final String sql, Map<String, ?> args, @Nullable DatabaseInfo databaseInfo) {
+        ParsedSql parsedSql = preparedSqlCache.get(sql, this::parsePreparedSql);
+        return new PreparedSqlMetaData(sql, parsedSql.prepareSql, parsedSql.argNameIndexMapping, parsedSql.argAccessors, args, databaseInfo);
+    }
+
+    private static List<ArgAccessor> createArgAccessors(Map<String, List<Integer>> argNameIndexMapping) {
+        if (argNameIndexMapping == null || argNameIndexMapping.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ArgAccessor> accessors = new ArrayList<>(argNameIndexMapping.size());
+        for (Map.Entry<String, List<Integer>> e : argNameIndexMapping.entrySet()) {
+            accessors.add(new ArgAccessor(e.getKey(), e.getValue()));
+        }
+        return Collections.unmodifiableList(accessors);
+    }
+
+    private ParsedSql parsePreparedSql(final String sql) {
         Map<String, List<Integer>> indexMap = new HashMap<>();
-        Matcher matcher = namedParamPattern.matcher(sql);
-        int index = 1;
-        StringBuffer buffer = new StringBuffer();
-        while (matcher.find()) {
-            String name = matcher.group(1);
-            String replacement;
-            if (name != null) {
-                replacement = "?";
-                indexMap.computeIfAbsent(name, k -> new ArrayList<>()).add(index);
-                index++;
-            } else {
-                replacement = matcher.group();
-            }
-            matcher.appendReplacement(buffer, Matcher.quoteReplacement(replacement));
+        int[] index = {1};
+        String prepareSql = replaceNamedParams(sql, name -> {
+            indexMap.computeIfAbsent(name, k -> new ArrayList<>()).add(index[0]++);
+            return "?";
+        });
+        for (Map.Entry<String, List<Integer>> e : indexMap.entrySet()) {
+            e.setValue(Collections.unmodifiableList(e.getValue()));
         }
-        matcher.appendTail(buffer);
-        return new PreparedSqlMetaData(sql, buffer.toString(), indexMap, args);
+        return new ParsedSql(prepareSql, Collections.unmodifiableMap(indexMap));
     }
 
     /**
@@ -145,21 +249,166 @@ public class SqlGenerator {
      * @return normal SQL
      */
     public String generateSql(final String sql, Map<String, ?> args, Function<Object, String> namedParamFormatter) {
-        StringBuffer buffer = new StringBuffer();
-        Matcher matcher = namedParamPattern.matcher(sql);
-        while (matcher.find()) {
-            String name = matcher.group(1);
-            String replacement;
-            if (name != null) {
-                Object value = ValueUtils.getDeepValue(args, name);
-                replacement = namedParamFormatter.apply(value);
-            } else {
-                replacement = matcher.group();
+        return replaceNamedParams(sql, name -> namedParamFormatter.apply(ValueUtils.getDeepValue(args, name)));
+    }
+
+    /**
+     * Replace named parameters in single pass, string literals, quoted identifiers,
+     * comments and PostgreSQL type casts are skipped, it's tokens are same as {@link #getNamedParamPattern()}.
+     *
+     * @param sql      named parameter sql
+     * @param replacer named parameter name -&gt; replacement, returns null to keep the original named parameter
+     * @return replaced sql
+     */
+    public String replaceNamedParams(final String sql, Function<String, String> replacer) {
+        if (sql.indexOf(namedParamPrefix) == -1) {
+            return sql;
+        }
+        Matcher nameMatcher = namedParamNameMatcher(sql);
+        StringBuilder sb = null;
+        int last = 0;
+        int start = nextNamedParam(sql, 0, nameMatcher);
+        while (start != -1) {
+            int end = nameMatcher.end();
+            String replacement = replacer.apply(nameMatcher.group());
+            if (replacement != null) {
+                if (sb == null) {
+                    sb = new StringBuilder(sql.length() + 16);
+                }
+                sb.append(sql, last, start).append(replacement);
+                last = end;
             }
-            matcher.appendReplacement(buffer, Matcher.quoteReplacement(replacement));
+            start = nextNamedParam(sql, end, nameMatcher);
         }
-        matcher.appendTail(buffer);
-        return buffer.toString();
+        if (sb == null) {
+            return sql;
+        }
+        return sb.append(sql, last, sql.length()).toString();
+    }
+
+    /**
+     * Split the sql by named parameters, e.g.
+     * <blockquote>
+     * <pre>select * from test.user where id = :id and name = :name</pre>
+     * </blockquote>
+     * <p>result: </p>
+     * <blockquote>
+     * <pre>(["select * from test.user where id = ", " and name = ", ""], ["id", "name"])</pre>
+     * </blockquote>
+     *
+     * @param sql named parameter sql
+     * @return (text parts, named parameter names), text parts size always equals to names size + 1
+     */
+    public Pair<List<String>, List<String>> splitNamedParams(final String sql) {
+        List<String> parts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        if (sql.indexOf(namedParamPrefix) != -1) {
+            Matcher nameMatcher = namedParamNameMatcher(sql);
+            int last = 0;
+            int start = nextNamedParam(sql, 0, nameMatcher);
+            while (start != -1) {
+                parts.add(sql.substring(last, start));
+                names.add(nameMatcher.group());
+                last = nameMatcher.end();
+                start = nextNamedParam(sql, last, nameMatcher);
+            }
+            parts.add(sql.substring(last));
+        } else {
+            parts.add(sql);
+        }
+        return Pair.of(parts, names);
+    }
+
+    private Matcher namedParamNameMatcher(String sql) {
+        return namedParamNamePattern.matcher(sql)
+                .useTransparentBounds(true)
+                .useAnchoringBounds(false);
+    }
+
+    /**
+     * Find the next named parameter, the name matcher holds the matched name and end index if found.
+     *
+     * @param sql         named parameter sql
+     * @param from        index to start searching
+     * @param nameMatcher named parameter name matcher of the sql
+     * @return named parameter start index (prefix index) or -1 if not found
+     */
+    private int nextNamedParam(final String sql, int from, Matcher nameMatcher) {
+        final int length = sql.length();
+        int i = from;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == namedParamPrefix && (i == 0 || sql.charAt(i - 1) != namedParamPrefix)) {
+                nameMatcher.region(i + 1, length);
+                if (nameMatcher.lookingAt()) {
+                    return i;
+                }
+            }
+            int end = skipToken(sql, i, c);
+            i = end == -1 ? i + 1 : end;
+        }
+        return -1;
+    }
+
+    /**
+     * Skip the string literal, quoted identifier, comment or PostgreSQL type cast which starts at the index.
+     *
+     * @param sql   sql
+     * @param start token start index
+     * @param c     char at start index
+     * @return token end index (exclusive) or -1 if no token starts at the index
+     */
+    private static int skipToken(String sql, int start, char c) {
+        final int length = sql.length();
+        switch (c) {
+            case '\'':
+            case '"':
+                // quote escaped by doubling, unclosed tail closes at the last escaped quote.
+                int lastEscape = -1;
+                for (int j = start + 1; j < length; j++) {
+                    if (sql.charAt(j) == c) {
+                        if (j + 1 < length && sql.charAt(j + 1) == c) {
+                            lastEscape = j;
+                            j++;
+                            continue;
+                        }
+                        return j + 1;
+                    }
+                }
+                return lastEscape == -1 ? -1 : lastEscape + 1;
+            case '-':
+                if (start + 1 < length && sql.charAt(start + 1) == '-') {
+                    for (int j = start + 2; j < length; j++) {
+                        char n = sql.charAt(j);
+                        if (n == '\n' || n == '\r' || n == '\u0085' || n == '\u2028' || n == '\u2029') {
+                            return j;
+                        }
+                    }
+                    return length;
+                }
+                return -1;
+            case '/':
+                if (start + 1 < length && sql.charAt(start + 1) == '*') {
+                    int end = sql.indexOf("*/", start + 2);
+                    return end == -1 ? -1 : end + 2;
+                }
+                return -1;
+            case ':':
+                if (start + 2 < length && sql.charAt(start + 1) == ':') {
+                    int j = start + 2;
+                    while (j < length && isWordChar(sql.charAt(j))) {
+                        j++;
+                    }
+                    return j == start + 2 ? -1 : j;
+                }
+                return -1;
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
     }
 
     /**
@@ -183,6 +432,109 @@ public class SqlGenerator {
         return generateInsert(tableName, f.toString(), h.toString());
     }
 
+    /**
+     * Generate named parameter upsert statement of the database dialect, e.g. key column {@code id}:
+     * <ul>
+     *     <li>PostgreSQL, SQLite: <pre>insert into t(id, a) values (:id, :a) on conflict (id) do update set a = excluded.a</pre></li>
+     *     <li>MySQL, MariaDB: <pre>insert into t(id, a) values (:id, :a) on duplicate key update a = values(a)</pre></li>
+     *     <li>Oracle: <pre>merge into t tgt using (select :id id, :a a from dual) src on (tgt.id = src.id) when matched then ... </pre></li>
+     *     <li>SQL Server, DB2: <pre>merge into t as tgt using (values (:id, :a)) as src (id, a) on (tgt.id = src.id) when matched then ... </pre></li>
+     * </ul>
+     *
+     * @param databaseInfo  database info
+     * @param tableName     table name
+     * @param columns       insert columns
+     * @param keys          conflict key columns, must be unique or primary key
+     * @param updateColumns update columns when conflict, the key columns are excluded
+     * @return upsert statement
+     * @throws IllegalArgumentException      if key column not in insert columns
+     * @throws UnsupportedOperationException if the database not supported
+     */
+    public String generateNamedParamUpsert(@NotNull DatabaseInfo databaseInfo,
+                                           @NotNull String tableName,
+                                           @NotNull Collection<String> columns,
+                                           @NotNull Collection<String> keys,
+                                           @NotNull Collection<String> updateColumns) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("Upsert key columns must not be empty.");
+        }
+        for (String key : keys) {
+            if (!columns.contains(key)) {
+                throw new IllegalArgumentException("Upsert key column '" + key + "' must be in insert columns.");
+            }
+        }
+        List<String> sets = new ArrayList<>();
+        for (String column : updateColumns) {
+            if (!keys.contains(column) && columns.contains(column)) {
+                SqlUtils.assertInvalidIdentifier(column);
+                sets.add(column);
+            }
+        }
+        StringJoiner f = new StringJoiner(", ");
+        StringJoiner h = new StringJoiner(", ");
+        for (String column : columns) {
+            SqlUtils.assertInvalidIdentifier(column);
+            f.add(column);
+            h.add(namedParamPrefix + column);
+        }
+        StringJoiner u = new StringJoiner(", ");
+        switch (databaseInfo.getName()) {
+            case "postgresql":
+            case "sqlite":
+            case "kingbasees":
+                for (String set : sets) {
+                    u.add(set + " = excluded." + set);
+                }
+                return generateInsert(tableName, f.toString(), h.toString()) +
+                        " on conflict (" + String.join(", ", keys) + ")" +
+                        (sets.isEmpty() ? " do nothing" : " do update set " + u);
+            case "mysql":
+            case "mariadb":
+                for (String set : sets.isEmpty() ? keys : sets) {
+                    u.add(set + " = values(" + set + ")");
+                }
+                return generateInsert(tableName, f.toString(), h.toString()) + " on duplicate key update " + u;
+            case "oracle":
+            case "dm dbms": {
+                StringJoiner src = new StringJoiner(", ");
+                for (String column : columns) {
+                    src.add(namedParamPrefix + column + " " + column);
+                }
+                return generateMerge(tableName + " tgt", "(select " + src + " from dual) src", keys, sets, columns, "");
+            }
+            case "microsoft sql server":
+            case "z/os":
+            case "sqlds":
+            case "iseries":
+            case "db2 for unix/windows":
+                // sql server merge must be terminated by semicolon.
+                return generateMerge(tableName + " as tgt", "(values (" + h + ")) as src (" + f + ")", keys, sets, columns,
+                        databaseInfo.getName().equals("microsoft sql server") ? ";" : "");
+            default:
+                throw new UnsupportedOperationException("Upsert of \"" + databaseInfo.getName() + "\" default not implement currently.");
+        }
+    }
+
+    private static String generateMerge(String target, String source, Collection<String> keys, List<String> sets, Collection<String> columns, String terminator) {
+        StringJoiner on = new StringJoiner(" and ");
+        for (String key : keys) {
+            on.add("tgt." + key + " = src." + key);
+        }
+        StringJoiner u = new StringJoiner(", ");
+        for (String set : sets) {
+            u.add("tgt." + set + " = src." + set);
+        }
+        StringJoiner f = new StringJoiner(", ");
+        StringJoiner v = new StringJoiner(", ");
+        for (String column : columns) {
+            f.add(column);
+            v.add("src." + column);
+        }
+        return "merge into " + target + " using " + source + " on (" + on + ")" +
+                (sets.isEmpty() ? "" : " when matched then update set " + u) +
+                " when not matched then insert (" + f + ") values (" + v + ")" + terminator;
+    }
+
     /**
      * Generate named parameter update by statement.
      *
@@ -259,4 +611,13 @@ public class SqlGenerator {
     public char getNamedParamPrefix() {
         return namedParamPrefix;
     }
+
+    /**
+     * Get prepared SQL cache, it's statistics (hits, misses, evictions) are available.
+     *
+     * @return prepared SQL cache
+     */
+    public BoundedCache<String, ?> getPreparedSqlCache() {
+        return preparedSqlCache;
+    }
 }
@@ -0,0 +1,211 @@
+package com.github.chengyuxing.sql.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.chengyuxing.common.util.StringUtils.FMT;
+
+/**
+ * Compiled SQL string template, the template is split once into literal parts and
+ * placeholder ({@code ${...}}) parts, formatting only touches the placeholder parts.
+ *
+ * @see SqlUtils#formatSqlTemplate(String, Map)
+ */
+public final class SqlTemplate {
+    /**
+     * Max cached compiled template count.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+    private static final BoundedCache<String, SqlTemplate> CACHE = new BoundedCache<>(DEFAULT_CACHE_SIZE);
+    private final String source;
+    private final String[] parts;
+    private final boolean[] placeholders;
+    private final boolean hasPlaceholder;
+    /**
+     * Bound constants, null if not bound.
+     */
+    private final Map<String, ?> constants;
+    /**
+     * Placeholder parts resolved by the bound constants.
+     */
+    private final String[] constantParts;
+
+    private SqlTemplate(String source, String[] parts, boolean[] placeholders) {
+        this.source = source;
+        this.parts = parts;
+        this.placeholders = placeholders;
+        boolean has = false;
+        for (boolean placeholder : placeholders) {
+            if (placeholder) {
+                has = true;
+                break;
+            }
+        }
+        this.hasPlaceholder = has;
+        this.constants = null;
+        this.constantParts = null;
+    }
+
+    private SqlTemplate(SqlTemplate template, Map<String, ?> constants, String[] constantParts) {
+        this.source = template.source;
+        this.parts = template.parts;
+        this.placeholders = template.placeholders;
+        this.hasPlaceholder = template.hasPlaceholder;
+        this.constants = constants;
+        this.constantParts = constantParts;
+    }
+
+    /**
+     * Get the compiled template from cache or compile it.
+     *
+     * @param template sql string with template variable
+     * @return compiled template
+     */
+    public static SqlTemplate of(@NotNull String template) {
+        return CACHE.get(template, SqlTemplate::compile);
+    }
+
+    /**
+     * Compile the template without cache.
+     *
+     * @param template sql string with template variable
+     * @return compiled template
+     */
+    public static SqlTemplate compile(@NotNull String template) {
+        List<String> parts = new ArrayList<>();
+        List<Boolean> placeholders = new ArrayList<>();
+        int last = 0;
+        int start = template.indexOf("${");
+        while (start != -1) {
+            int end = template.indexOf('}', start + 2);
+            if (end == -1) {
+                break;
+            }
+            if (start > last) {
+                parts.add(template.substring(last, start));
+                placeholders.add(false);
+            }
+            parts.add(template.substring(start, end + 1));
+            placeholders.add(true);
+            last = end + 1;
+            start = template.indexOf("${", last);
+        }
+        if (last < template.length()) {
+            parts.add(template.substring(last));
+            placeholders.add(false);
+        }
+        boolean[] flags = new boolean[placeholders.size()];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = placeholders.get(i);
+        }
+        return new SqlTemplate(template, parts.toArray(new String[0]), flags);
+    }
+
+    /**
+     * Returns a new template which the placeholder parts are resolved by the constants in advance,
+     * {@link #format(Map)} of the returned template formats the placeholders by data first, and
+     * then the rest placeholders by the constants.
+     * <p>The constants are copied, bind again if the constants changed.</p>
+     *
+     * @param constants constants
+     * @return template bound to the constants or this if nothing to resolve
+     */
+    public SqlTemplate withConstants(Map<String, ?> constants) {
+        if (constants == null || constants.isEmpty() || !hasPlaceholder) {
+            return this;
+        }
+        Map<String, ?> myConstants = new HashMap<>(constants);
+        String[] myConstantParts = new String[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            if (placeholders[i]) {
+                myConstantParts[i] = formatPlaceholder(parts[i], myConstants);
+            }
+        }
+        return new SqlTemplate(this, myConstants, myConstantParts);
+    }
+
+    /**
+     * Format the template.
+     *
+     * @param data data
+     * @return formatted sql string
+     * @see #withConstants(Map)
+     */
+    public String format(Map<String, ?> data) {
+        if (!hasPlaceholder) {
+            return source;
+        }
+        if (constantParts != null) {
+            return formatWithConstants(data);
+        }
+        if (data == null) {
+            return source;
+        }
+        StringBuilder sb = new StringBuilder(source.length() + 32);
+        for (int i = 0; i < parts.length; i++) {
+            sb.append(placeholders[i] ? formatPlaceholder(parts[i], data) : parts[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Format the template by args first, and then format the rest placeholders by constants,
+     * the constants are resolved on each call, use {@link #withConstants(Map)} to resolve them once.
+     *
+     * @param args      args
+     * @param constants constants
+     * @return formatted sql string
+     */
+    public String format(Map<String, ?> args, Map<String, ?> constants) {
+        return withConstants(constants).format(args);
+    }
+
+    private String formatWithConstants(Map<String, ?> args) {
+        boolean hasArgs = args != null;
+        StringBuilder sb = new StringBuilder(source.length() + 32);
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (!placeholders[i]) {
+                sb.append(part);
+                continue;
+            }
+            String formatted = hasArgs ? formatPlaceholder(part, args) : part;
+            if (formatted.equals(part)) {
+                sb.append(constantParts[i]);
+            } else if (formatted.contains("${")) {
+                sb.append(formatPlaceholder(formatted, constants));
+            } else {
+                sb.append(formatted);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String formatPlaceholder(String placeholder, Map<String, ?> data) {
+        return FMT.format(placeholder, data, SqlUtils::toSqlLiteral);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Clear the compiled template cache.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Get the compiled template cache, it's statistics (hits, misses, evictions) are available.
+     *
+     * @return compiled template cache
+     */
+    public static BoundedCache<String, SqlTemplate> getCache() {
+        return CACHE;
+    }
+}
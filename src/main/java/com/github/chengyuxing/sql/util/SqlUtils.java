@@ -7,7 +7,6 @@ import org.jetbrains.annotations.NotNull;
 import java.util.*;
 import java.util.regex.Pattern;
 
-import static com.github.chengyuxing.common.util.StringUtils.FMT;
 
 /**
  * SQL util.
@@ -44,9 +43,13 @@ public class SqlUtils {
      * @param template sql string with template variable
      * @param data     data
      * @return formatted sql string
+     * @see SqlTemplate
      */
     public static String formatSqlTemplate(final String template, final Map<String, ?> data) {
-        return FMT.format(template, data, SqlUtils::toSqlLiteral);
+        if (data == null || data.isEmpty() || !template.contains("${")) {
+            return template;
+        }
+        return SqlTemplate.of(template).format(data);
     }
 
     /**
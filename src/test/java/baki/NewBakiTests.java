@@ -9,26 +9,47 @@ import com.github.chengyuxing.common.DataRow;
 import com.github.chengyuxing.common.io.FileResource;
 import com.github.chengyuxing.common.script.exception.CheckViolationException;
 import com.github.chengyuxing.sql.*;
+import com.github.chengyuxing.sql.datasource.ReadWriteRoutingDataSource;
+import com.github.chengyuxing.sql.exceptions.ParallelExecutionException;
 import com.github.chengyuxing.sql.page.impl.PGPageHelper;
 import com.github.chengyuxing.sql.plugins.QueryCacheManager;
 import com.github.chengyuxing.sql.plugins.QueryExecutor;
+import com.github.chengyuxing.sql.transaction.Definition;
 import com.github.chengyuxing.sql.transaction.Tx;
 import com.github.chengyuxing.sql.types.DatabaseInfo;
 import com.github.chengyuxing.sql.types.StandardOutParamType;
 import com.github.chengyuxing.sql.types.Param;
+import com.github.chengyuxing.sql.util.Flow;
 import com.github.chengyuxing.sql.util.JdbcUtils;
+import com.github.chengyuxing.sql.util.LobStreams;
 import com.zaxxer.hikari.HikariDataSource;
+import io.reactivex.rxjava3.core.Flowable;
 import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
-
+import org.junit.rules.TemporaryFolder;
+import org.reactivestreams.Subscription;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.sql.CallableStatement;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class NewBakiTests {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
     private static BakiDao bakiDao;
     private static Baki baki;
     private static final ObjectMapper json = new ObjectMapper();
@@ -498,4 +519,257 @@ public class NewBakiTests {
                 .findFirst()
                 .ifPresent(System.out::println);
     }
+
+    @Test
+    public void testStatementCache() {
+        bakiDao.setStatementCacheSize(16);
+        Tx.using(() -> {
+            for (int i = 0; i < 100; i++) {
+                baki.query("select * from test.guest where id = :id")
+                        .args("id", i)
+                        .findFirst();
+            }
+        });
+        System.out.println(bakiDao.getStatementCacheMetrics());
+        bakiDao.setStatementCacheSize(0);
+    }
+
+    @Test
+    public void testFetchSize() {
+        try (Stream<DataRow> s = baki.query("select * from test.big_table")
+                .fetchSize(500)
+                .stream()) {
+            s.limit(10).forEach(System.out::println);
+        }
+    }
+
+    @Test
+    public void testParallelInsert() {
+        Stream<DataRow> rows = IntStream.range(0, 100000)
+                .mapToObj(i -> DataRow.of("id", i, "name", "chengyuxing" + i, "age", i % 100));
+        long start = System.currentTimeMillis();
+        int n = bakiDao.parallelInsert("insert into test.big_table(id, name, age) values (:id, :name, :age)", rows, 4);
+        System.out.println(n + " rows: " + (System.currentTimeMillis() - start) + "ms");
+
+        Stream<DataRow> broken = IntStream.range(100000, 110000)
+                .mapToObj(i -> {
+                    if (i == 105500) {
+                        throw new IllegalStateException("source broken at " + i);
+                    }
+                    return DataRow.of("id", i, "name", "chengyuxing" + i, "age", i % 100);
+                });
+        try {
+            bakiDao.parallelInsert("insert into test.big_table(id, name, age) values (:id, :name, :age)", broken, 4);
+        } catch (ParallelExecutionException e) {
+            System.out.println(e.getMessage());
+            e.getFailures().forEach(System.out::println);
+            e.getSkipped().forEach(System.out::println);
+            System.out.println(e.getReadRows() + ", " + e.getFirstUnwrittenRow());
+        }
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        CompletableFuture<List<DataRow>> rows = baki.query("select * from test.guest where id < :id")
+                .args("id", 10)
+                .async()
+                .rows();
+        CompletableFuture<Integer> n = bakiDao.async()
+                .updateAsync("update test.guest set age = age where id = :id", Args.of("id", 1));
+        System.out.println(rows.get().size() + ", " + n.get());
+
+        CompletableFuture<DataRow> slow = bakiDao.async()
+                .deadline(Duration.ofMillis(500))
+                .executeAsync("select pg_sleep(3)", Collections.emptyMap());
+        try {
+            slow.get();
+        } catch (ExecutionException e) {
+            System.out.println(e.getCause());
+        }
+    }
+
+    @Test
+    public void testReadWriteRouting() throws Exception {
+        Path primaryFile = Paths.get("/tmp/rw_primary.db");
+        Files.deleteIfExists(primaryFile);
+        BakiDao primaryDao = new BakiDao(sqlite(primaryFile));
+        primaryDao.execute("create table users(id integer primary key, name text)", Collections.emptyMap());
+        primaryDao.insert("insert into users(id, name) values (:id, :name)", Args.of("id", 1, "name", "cyx"));
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            Path replicaFile = Paths.get("/tmp/rw_replica" + i + ".db");
+            Files.copy(primaryFile, replicaFile, StandardCopyOption.REPLACE_EXISTING);
+            replicas.add(sqlite(replicaFile));
+        }
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(sqlite(primaryFile), replicas);
+        routing.setLoadBalance(ReadWriteRoutingDataSource.LoadBalance.LEAST_OUTSTANDING);
+        BakiDao routingDao = new BakiDao(routing);
+
+        routingDao.insert("insert into users(id, name) values (:id, :name)", Args.of("id", 2, "name", "jack"));
+        // replicas are not synchronized.
+        System.out.println(routingDao.query("select * from users").rows());
+
+        routing.setReadYourWritesWindow(Duration.ofSeconds(1));
+        routingDao.insert("insert into users(id, name) values (:id, :name)", Args.of("id", 3, "name", "mike"));
+        System.out.println(routingDao.query("select * from users").rows());
+
+        Definition readOnly = Definition.defaultDefinition();
+        readOnly.setReadOnly(true);
+        Thread.sleep(1000);
+        System.out.println(Tx.using(() -> routingDao.query("select * from users").rows(), readOnly));
+    }
+
+    @Test
+    public void testMixedTypeRows() throws Exception {
+        Path file = tempFolder.newFile("mixed_type.db").toPath();
+        HikariDataSource dataSource = sqlite(file);
+        try {
+            BakiDao sqliteDao = new BakiDao(dataSource);
+            sqliteDao.execute("create table mixed(id integer, v integer)", Collections.emptyMap());
+            sqliteDao.execute("insert into mixed(id, v) values (1, 1), (2, 3000000000), (3, 2.5), (4, 'abc'), (5, null)", Collections.emptyMap());
+            // 2nd round reads by the cached decoder.
+            for (int i = 0; i < 2; i++) {
+                List<DataRow> rows = sqliteDao.query("select v from mixed order by id").rows();
+                System.out.println(rows);
+                Assert.assertEquals(1, ((Number) rows.get(0).get("v")).intValue());
+                Assert.assertEquals(3000000000L, ((Number) rows.get(1).get("v")).longValue());
+                Assert.assertEquals(2.5, rows.get(2).get("v"));
+                Assert.assertEquals("abc", rows.get(3).get("v"));
+                Assert.assertNull(rows.get(4).get("v"));
+            }
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    private static HikariDataSource sqlite(Path file) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:sqlite:" + file);
+        return dataSource;
+    }
+
+    @Test
+    public void testWithDeadline() {
+        List<DataRow> rows = baki.withDeadline(Duration.ofSeconds(3), () ->
+                baki.query("select * from test.guest where id < :id").args("id", 10).rows());
+        System.out.println(rows.size());
+        try {
+            baki.withDeadline(Duration.ofSeconds(5), () -> baki.withDeadline(Duration.ofMillis(500), () -> {
+                try (Stream<DataRow> s = baki.query("select pg_sleep(0.1) from generate_series(1, 100)").stream()) {
+                    return s.count();
+                }
+            }));
+        } catch (RuntimeException e) {
+            System.out.println(e.getCause());
+        }
+    }
+
+    @Test
+    public void testExecuteAll() {
+        String sql = "select * from test.guest where id < :id;" +
+                "update test.guest set age = age where id = :id;" +
+                "select count(*) from test.guest";
+        baki.executeAll(sql, Args.of("id", 5))
+                .forEach(System.out::println);
+        try (Stream<DataRow> s = bakiDao.executeAnyStream(sql, Args.of("id", 5))) {
+            s.map(r -> r.getString("type")).forEach(System.out::println);
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        QueryBatch batch = baki.parallel().deadline(Duration.ofSeconds(5));
+        QueryBatch.Result<List<DataRow>> guests = batch.add(baki.query("select * from test.guest where id < :id").args("id", 10));
+        QueryBatch.Result<Long> count = batch.count(baki.entity(Guest.class).query());
+        QueryBatch.Result<PagedResource<DataRow>> page = batch.add(baki.query("select * from test.guest").pageable(1, 10));
+        QueryBatch.Result<DataRow> sleep = batch.add(() -> baki.execute("select pg_sleep(1)", Collections.emptyMap()));
+        batch.execute();
+        System.out.println(guests.get().size() + ", " + count.get() + ", " + page.get().getData().size() + ", " + sleep.get());
+
+        Tx.using(() -> {
+            QueryBatch txBatch = baki.parallel();
+            QueryBatch.Result<Long> txCount = txBatch.count(baki.entity(Guest.class).query());
+            txBatch.execute();
+            System.out.println(txCount.get());
+        });
+    }
+
+    @Test
+    public void testPublisher() {
+        Flow.Publisher<DataRow> publisher = baki.query("select * from test.guest").publisher();
+        Flowable.<DataRow>fromPublisher(s -> publisher.subscribe(new Flow.Subscriber<DataRow>() {
+                    @Override
+                    public void onSubscribe(@NotNull Flow.Subscription subscription) {
+                        s.onSubscribe(new Subscription() {
+                            @Override
+                            public void request(long n) {
+                                subscription.request(n);
+                            }
+
+                            @Override
+                            public void cancel() {
+                                subscription.cancel();
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onNext(DataRow item) {
+                        s.onNext(item);
+                    }
+
+                    @Override
+                    public void onError(@NotNull Throwable throwable) {
+                        s.onError(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        s.onComplete();
+                    }
+                }))
+                .rebatchRequests(10)
+                .limit(25)
+                .blockingForEach(System.out::println);
+    }
+
+    @Test
+    public void testLobStream() {
+        Tx.using(() -> {
+            try (Stream<DataRow> s = baki.query("select id, content from test.files")
+                    .streamLobs()
+                    .stream()) {
+                s.forEach(d -> {
+                    InputStream in = d.getAs("content");
+                    long bytes = LobStreams.transferTo(in, Paths.get("/tmp", "lob_" + d.getString("id")));
+                    System.out.println(d.getString("id") + ": " + bytes);
+                });
+            }
+        });
+    }
+
+    @Test
+    public void testEntityMapperPerf() {
+        String sql = "select id, xm, age, address from test.guest";
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                try (Stream<DataRow> s = baki.query(sql).stream()) {
+                    s.map(d -> d.toEntity(Guest.class,
+                            f -> bakiDao.getEntityMetaProvider().columnMeta(f).getName(),
+                            bakiDao.getEntityMetaProvider()::columnValue)).forEach(g -> {
+                    });
+                }
+            }
+            long dataRowPath = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                baki.query(sql).entities(Guest.class);
+            }
+            long directPath = System.nanoTime() - start;
+            System.out.println("DataRow: " + dataRowPath / 1_000_000 + "ms, direct: " + directPath / 1_000_000 + "ms");
+        }
+        System.out.println(bakiDao.getEntityManager().getEntityMapperCache());
+    }
 }
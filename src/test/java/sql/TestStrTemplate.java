@@ -5,10 +5,14 @@ import com.github.chengyuxing.common.io.FileResource;
 import com.github.chengyuxing.common.util.StringUtils;
 import com.github.chengyuxing.sql.Keywords;
 import com.github.chengyuxing.sql.util.SqlGenerator;
+import com.github.chengyuxing.sql.util.SqlTemplate;
+import com.github.chengyuxing.sql.util.SqlUtils;
 import org.junit.Test;
 
 import java.util.Arrays;
 
+import static org.junit.Assert.assertEquals;
+
 public class TestStrTemplate {
     static final String sql = "select ${ fields } from test.user where ${  cnd} ;";
     static final DataRow args = DataRow.of("ids", Arrays.asList("I'm Ok!", "b", "c"))
@@ -26,6 +30,26 @@ public class TestStrTemplate {
         System.out.println("---");
     }
 
+    @Test
+    public void testCompiled() throws Exception {
+        String expected = StringUtils.FMT.format(sql, args, SqlUtils::toSqlLiteral);
+        System.out.println(expected);
+        assertEquals(expected, SqlTemplate.of(sql).format(args));
+        assertEquals(expected, SqlTemplate.of(sql).format(args));
+
+        DataRow constants = DataRow.of("fields", "*", "cnd", "1 = 1");
+        String s = "select ${fields} from test.user where ${cnd} and ${date}";
+        String twoPass = StringUtils.FMT.format(StringUtils.FMT.format(s, DataRow.of("date", "${!time}"), SqlUtils::toSqlLiteral), constants, SqlUtils::toSqlLiteral);
+        assertEquals(twoPass, SqlTemplate.of(s).format(DataRow.of("date", "${!time}"), constants));
+
+        SqlTemplate bound = SqlTemplate.of(s).withConstants(constants);
+        assertEquals(twoPass, bound.format(DataRow.of("date", "${!time}")));
+        constants.put("fields", "id");
+        assertEquals(twoPass, bound.format(DataRow.of("date", "${!time}")));
+        assertEquals(twoPass.replace("select *", "select id"), SqlTemplate.of(s).withConstants(constants).format(DataRow.of("date", "${!time}")));
+        System.out.println(SqlTemplate.getCache());
+    }
+
     @Test
     public void testO() throws Exception {
         boolean res = Object[].class.isAssignableFrom(Integer[].class);
@@ -0,0 +1,113 @@
+package tests;
+
+import com.github.chengyuxing.sql.Args;
+import com.github.chengyuxing.sql.util.ArgAccessor;
+import com.github.chengyuxing.sql.util.SqlGenerator;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+
+import static org.junit.Assert.assertEquals;
+
+public class SqlGeneratorTests {
+    static final List<String> samples = Arrays.asList(
+            "select * from test.user where id = :id and name = :name",
+            "select t.id || 'number' || 'age:age,name:cyx', '{\"name\":\"user\"}'::jsonb from test.user where id =:id::integer and name = text :username.hobbies[0].name",
+            "select ':a'' :b', \":c\"\"\" , '' from t where x = :x -- :y\r\n and z = :z /* :w */ and q = ::q",
+            "select 'unclosed :a",
+            "select 'a'':b'' :c",
+            "select \"a\"\":b :c",
+            "select /* unclosed :a",
+            "select :a::: :: ::int ::b -- end",
+            "insert into test.user(idd,name,id,age,address) values (*id,*name::integer,*idd::float,integer *age,date *address)",
+            "select a:b, :_var.item_0, :1a, ::, -- comment  :after",
+            "select '$1 \\\\ :p' from t where :p = '${x}'"
+    );
+
+    static String regexReplace(SqlGenerator sqlGenerator, String sql) {
+        Matcher m = sqlGenerator.getNamedParamPattern().matcher(sql);
+        StringBuffer sb = new StringBuffer();
+        while (m.find()) {
+            String name = m.group(1);
+            m.appendReplacement(sb, Matcher.quoteReplacement(name != null ? "<" + name + ">" : m.group()));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    static List<String> corpus() throws Exception {
+        List<String> sqls = new ArrayList<>(samples);
+        File dir = new File(Objects.requireNonNull(SqlGeneratorTests.class.getClassLoader().getResource("dynamic-sql-example")).toURI());
+        for (File file : Objects.requireNonNull(dir.listFiles((d, name) -> name.endsWith(".xql")))) {
+            sqls.add(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        }
+        return sqls;
+    }
+
+    @Test
+    public void testLexerSameAsRegex() throws Exception {
+        List<String> sqls = corpus();
+        for (char prefix : new char[]{':', '?', '*', '$'}) {
+            SqlGenerator sqlGenerator = new SqlGenerator(prefix);
+            for (String sql : sqls) {
+                assertEquals(regexReplace(sqlGenerator, sql), sqlGenerator.replaceNamedParams(sql, name -> "<" + name + ">"));
+            }
+        }
+    }
+
+    @Test
+    public void testPreparedSql() throws Exception {
+        SqlGenerator sqlGenerator = new SqlGenerator(':');
+        SqlGenerator.PreparedSqlMetaData smd = sqlGenerator.generatePreparedSql(samples.get(2), Collections.emptyMap());
+        System.out.println(smd.getPrepareSql());
+        System.out.println(smd.getArgNameIndexMapping());
+        assertEquals(Arrays.asList(1), smd.getArgNameIndexMapping().get("x"));
+        assertEquals(Arrays.asList(2), smd.getArgNameIndexMapping().get("z"));
+    }
+
+    @Test
+    public void testArgAccessor() throws Exception {
+        SqlGenerator sqlGenerator = new SqlGenerator(':');
+        SqlGenerator.PreparedSqlMetaData smd = sqlGenerator.generatePreparedSql("select * from test.user where id = :id and city = :user.address.city or name = :user.names[1]",
+                Args.of("id", 1, "user", Args.of("address", Args.of("city", "kunming"), "names", Arrays.asList("a", "b"))));
+        Map<String, Object> values = new HashMap<>();
+        for (ArgAccessor accessor : smd.getArgAccessors()) {
+            values.put(accessor.getName(), accessor.getValue(smd.getArgs()));
+        }
+        System.out.println(smd.getArgAccessors());
+        assertEquals(Args.of("id", 1, "user.address.city", "kunming", "user.names[1]", "b"), values);
+    }
+
+    @Test
+    public void testArgAccessorBean() throws Exception {
+        ArgAccessor accessor = new ArgAccessor("user.address.city", Arrays.asList(1));
+        for (String city : Arrays.asList("kunming", "beijing")) {
+            Address address = new Address();
+            address.setCity(city);
+            assertEquals(city, accessor.getValue(Args.of("user", Args.of("address", address))));
+        }
+        assertEquals(null, accessor.getValue(Args.of("user", Args.of("address", new Address()))));
+    }
+
+    public static class Address {
+        private String city;
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+}
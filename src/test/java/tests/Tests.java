@@ -3,13 +3,32 @@ package tests;
 import com.github.chengyuxing.common.DataRow;
 import com.github.chengyuxing.common.MostDateTime;
 import com.github.chengyuxing.common.util.StringUtils;
+import com.github.chengyuxing.sql.annotation.SqlStatementType;
+import com.github.chengyuxing.sql.exceptions.DataAccessException;
 import com.github.chengyuxing.sql.page.impl.OraclePageHelper;
 import com.github.chengyuxing.sql.page.impl.PGPageHelper;
+import com.github.chengyuxing.sql.plugins.StatementValueHandler;
+import com.github.chengyuxing.sql.types.CompactRow;
+import com.github.chengyuxing.sql.support.TransientRetryPolicy;
+import com.github.chengyuxing.sql.types.DatabaseInfo;
+import com.github.chengyuxing.sql.types.Execution;
+import com.github.chengyuxing.sql.util.BindingStreams;
+import com.github.chengyuxing.sql.util.JdbcUtils;
+import com.github.chengyuxing.sql.util.LayeredArgs;
+import com.github.chengyuxing.sql.util.MultiRowInsert;
 import com.github.chengyuxing.sql.util.SqlGenerator;
+import com.github.chengyuxing.sql.util.SizedInputStream;
 import org.junit.Test;
 
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.*;
 
+import static org.junit.Assert.*;
+
 public class Tests {
 
     @Test
@@ -41,6 +60,144 @@ public class Tests {
         System.out.println(pair.getArgs());
     }
 
+    @Test
+    public void preparedSqlCache() throws Exception {
+        SqlGenerator sqlGenerator = new SqlGenerator(':', 2);
+        String sql = "select * from test.user where id = :id and name = :name or id = :id";
+        for (int i = 0; i < 3; i++) {
+            SqlGenerator.PreparedSqlMetaData smd = sqlGenerator.generatePreparedSql(sql, DataRow.of("id", i));
+            System.out.println(smd.getPrepareSql());
+            System.out.println(smd.getArgNameIndexMapping());
+        }
+        sqlGenerator.generatePreparedSql("select 1", Collections.emptyMap());
+        sqlGenerator.generatePreparedSql("select 2", Collections.emptyMap());
+        System.out.println(sqlGenerator.getPreparedSqlCache());
+    }
+
+    @Test
+    public void layeredArgs() throws Exception {
+        Map<String, Object> userArgs = DataRow.of("id", 1, "name", "cyx");
+        Map<String, Object> pagedArgs = DataRow.of("id", 2);
+        Map<String, Object> lateArgs = new HashMap<>();
+        LayeredArgs args = LayeredArgs.of(userArgs, null, Collections.singletonMap("_databaseId", "postgresql"), lateArgs, pagedArgs);
+        System.out.println(args);
+        // the latter layer overrides the former layer.
+        assertEquals(2, args.get("id"));
+        assertEquals("cyx", args.get("name"));
+        assertEquals("postgresql", args.get("_databaseId"));
+        assertEquals(3, args.size());
+        assertFalse(args.isEmpty());
+
+        assertEquals("cyx", args.remove("name"));
+        assertNull(args.remove("name"));
+        assertFalse(args.containsKey("name"));
+        assertNull(args.get("name"));
+        assertNull(args.put("age", 30));
+        assertEquals(2, args.put("id", 3));
+        assertEquals(3, args.get("id"));
+        assertEquals(30, args.get("age"));
+        assertEquals(3, args.size());
+        assertEquals(args.size(), args.entrySet().size());
+
+        // removed key is visible again after put.
+        args.put("name", "jack");
+        assertEquals("jack", args.get("name"));
+        assertEquals(4, args.size());
+        // the layer is viewed without copying.
+        lateArgs.put("version", "1.0");
+        assertEquals("1.0", args.get("version"));
+        assertEquals(5, args.size());
+        System.out.println(args);
+
+        // the layers are never modified.
+        assertEquals(DataRow.of("id", 1, "name", "cyx"), userArgs);
+        assertEquals(DataRow.of("id", 2), pagedArgs);
+
+        LayeredArgs single = LayeredArgs.of(Collections.singletonMap("a", 1));
+        single.remove("a");
+        assertTrue(single.isEmpty());
+        assertEquals(0, single.size());
+        assertTrue(LayeredArgs.of().isEmpty());
+    }
+
+    @Test
+    public void compactRow() throws Exception {
+        CompactRow.Schema schema = CompactRow.Schema.of("id", "name", "age");
+        CompactRow row = new CompactRow(schema, new Object[]{1, "cyx", 30});
+        CompactRow row2 = CompactRow.of(DataRow.of("id", 2, "name", "jack", "age", 25), schema);
+        System.out.println(row);
+        System.out.println(row2.getSchema() == schema);
+        System.out.println(row.get("name") + ", " + row.get(2));
+        row.put("address", "kunming");
+        row.remove("age");
+        System.out.println(row);
+        System.out.println(row2.toDataRow());
+    }
+
+    @Test
+    public void bindingStreams() throws Exception {
+        Path file = Files.createTempFile("binding", ".bin");
+        Files.write(file, new byte[]{1, 2, 3, 4});
+        try (BindingStreams streams = new BindingStreams()) {
+            SizedInputStream in = (SizedInputStream) streams.bind(file);
+            System.out.println(in.length());
+            System.out.println(streams.bind(file.toFile()) instanceof SizedInputStream);
+            System.out.println(streams.bind("abc"));
+            System.out.println(streams.size());
+        }
+        // custom statement value handler delegates to the default, the file stream is registered to the current binding streams.
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> null);
+        StatementValueHandler handler = (p, index, value, info) -> JdbcUtils.setStatementValue(p, index, value);
+        BindingStreams streams = new BindingStreams();
+        BindingStreams previous = BindingStreams.setCurrent(streams);
+        try {
+            handler.handle(ps, 1, file, new DatabaseInfo("postgresql", "1.0", "", "\"", ""));
+        } finally {
+            BindingStreams.setCurrent(previous);
+        }
+        System.out.println(streams.size());
+        streams.close();
+        Files.delete(file);
+    }
+
+    @Test
+    public void multiRowInsert() throws Exception {
+        MultiRowInsert insert = MultiRowInsert.parse("insert into test.user(id, name, \"values\") values (?, ?, 'a(?)') on conflict do nothing");
+        System.out.println(insert.getParameterCount());
+        System.out.println(insert.sql(3));
+        System.out.println(MultiRowInsert.parse("insert into test.user(id, name) select ?, ?"));
+        System.out.println(MultiRowInsert.parse("insert into test.user(id, name) values (?, ?), (?, ?)"));
+        System.out.println(MultiRowInsert.parse("insert into test.user(id, name) values (?, ?) returning id = ?"));
+        System.out.println(MultiRowInsert.parse("insert into test.user(id, name) values (?, ?) on conflict (id) do update set name = excluded.name"));
+        System.out.println(MultiRowInsert.parse("insert into test.user(id, name) values (?, ?) on conflict (id) do nothing -- do update"));
+    }
+
+    @Test
+    public void upsert() throws Exception {
+        SqlGenerator generator = new SqlGenerator(':');
+        List<String> columns = Arrays.asList("id", "name", "age");
+        for (String db : Arrays.asList("postgresql", "mysql", "oracle", "microsoft sql server")) {
+            DatabaseInfo info = new DatabaseInfo(db, "1.0", "", "\"", "");
+            System.out.println(generator.generateNamedParamUpsert(info, "test.user", columns, Collections.singletonList("id"), columns));
+        }
+    }
+
+    @Test
+    public void retryPolicy() throws Exception {
+        TransientRetryPolicy policy = new TransientRetryPolicy();
+        Execution query = new Execution(SqlStatementType.query, "select * from test.user", null);
+        Execution dml = new Execution(SqlStatementType.dml, "update test.user set age = 1", null);
+        SQLException deadlock = new SQLException("deadlock detected", "40P01");
+        SQLException reset = new SQLException("Connection reset", "08006");
+        System.out.println(policy.backoff(dml, new DataAccessException(deadlock), 1));
+        System.out.println(policy.backoff(dml, reset, 1));
+        System.out.println(policy.backoff(query, reset, 2));
+        System.out.println(policy.backoff(query, reset, 4));
+        System.out.println(TransientRetryPolicy.isTransactionRollback(new SQLException("ORA-00060: deadlock detected while waiting for resource", "61000", 60)));
+        System.out.println(TransientRetryPolicy.isTransactionRollback(new SQLException("[SQLITE_BUSY] The database file is locked", null, 5)));
+    }
+
     @Test
     public void sqlPlaceHolder() throws Exception {
         String query = "select * from test where id = ?_i.d and id = ?id and idCard = '5301111' or name = ?na_me ${cnd}";
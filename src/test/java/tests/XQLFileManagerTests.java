@@ -88,4 +88,19 @@ public class XQLFileManagerTests {
     public void hello() {
         System.out.println(Math.random() * 500);
     }
+
+    @Test
+    public void testRenderCache() {
+        XQLFileManager xqlFileManager = new XQLFileManager();
+        xqlFileManager.add("a", "dynamic-sql-example/builtin_database_id.xql");
+        xqlFileManager.setRenderCacheSize(16);
+        xqlFileManager.init();
+
+        for (int i = 0; i < 5; i++) {
+            System.out.println(xqlFileManager.get("a.other", Args.of("_parameter", Args.of("name", "cyx" + i))));
+            System.out.println(xqlFileManager.get("a.other", Args.of("_parameter", Args.of("name", ""))));
+        }
+        System.out.println(xqlFileManager.getRenderCache());
+    }
+
 }